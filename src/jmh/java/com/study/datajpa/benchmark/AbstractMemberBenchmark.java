@@ -0,0 +1,67 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스프링 컨텍스트를 띄우는 벤치마크의 공통 부분.
+ * 트라이얼마다 properties() 로 컨텍스트를 띄우고 members() 를 bulkImport 로 적재한 뒤 setUp() 을 부른다.
+ * 측정 설정(@Warmup 3 x 2s, @Measurement 5 x 2s, @Fork 1)은 하위 클래스에서 어노테이션으로 바꿀 수 있다.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractMemberBenchmark {
+
+    protected ConfigurableApplicationContext context;
+    protected MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start(properties());
+        memberRepository = context.getBean(MemberRepository.class);
+        List<Member> members = members();
+        if (!members.isEmpty()) {
+            memberRepository.bulkImport(members, 1000);
+        }
+        setUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    // 컨텍스트에 추가할 프로퍼티
+    protected String[] properties() {
+        return new String[0];
+    }
+
+    // 트라이얼 시작 시 적재할 회원 (컨텍스트가 뜬 뒤에 호출)
+    protected List<Member> members() {
+        return List.of();
+    }
+
+    // 적재 후 추가 준비
+    protected void setUp() {
+    }
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // "member" + i, 나이 i % 100 인 회원 rows 명
+    protected static List<Member> members(int rows) {
+        List<Member> members = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member("member" + i, i % 100));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.audit.AuditorIds;
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사 필드가 채워지는 insert 처리량 비교.
+ * before: 쓰기마다 UUID.randomUUID() (datajpa.audit.cached=false, id-source=secure)
+ * after: 트랜잭션/배치마다 한 번, ThreadLocalRandom 기반 ID
+ * idSecure/idFast 는 ID 생성 자체의 비용 (여러 스레드에서 SecureRandom 경합을 보려면 -t 옵션).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuditorBenchmark extends AbstractMemberBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"before", "after"})
+    String auditor;
+
+    @Override
+    protected String[] properties() {
+        boolean after = "after".equals(auditor);
+        return new String[]{"datajpa.audit.cached=" + after, "datajpa.audit.id-source=" + (after ? "fast" : "secure")};
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int auditedInsert() {
+        List<Member> members = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            members.add(new Member("audited" + i, i));
+        }
+        return memberRepository.bulkImport(members);
+    }
+
+    @Benchmark
+    public String idSecure() {
+        return AuditorIds.secure();
+    }
+
+    @Benchmark
+    public String idFast() {
+        return AuditorIds.fast();
+    }
+}
@@ -0,0 +1,94 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.batch.MemberBatchEngine;
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 1M 행 전체에 age + 1 을 적용하는 배치 한 번의 시간 (rows / 측정 시간 = rows/sec)과 실행 중 최대 힙 사용량.
+ * 최대 힙은 ageUp:peakHeapMb 보조 지표로 결과에 함께 나온다.
+ * 청크마다 flush/clear 하므로 최대 힙은 행 수가 아니라 chunkSize 에 비례해야 한다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class BatchEngineBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"100", "1000", "5000"})
+    int chunkSize;
+
+    @Param({"1", "4"})
+    int partitions;
+
+    MemberBatchEngine batchEngine;
+    final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    final AtomicLong peakHeap = new AtomicLong();
+    Thread sampler;
+    int run;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"datajpa.n-plus-one.mode=off"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        return members(rows);
+    }
+
+    @Override
+    protected void setUp() {
+        batchEngine = bean(MemberBatchEngine.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void startSampler() {
+        System.gc();
+        peakHeap.set(memory.getHeapMemoryUsage().getUsed());
+        sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopSampler() throws InterruptedException {
+        sampler.interrupt();
+        sampler.join();
+    }
+
+    @Benchmark
+    public long ageUp(HeapCounters heap) {
+        // 매번 새 작업 이름으로 전체를 처리
+        long processed = batchEngine.run("bench" + (run++), chunkSize, partitions,
+                member -> member.setAge(member.getAge() + 1)).getProcessed();
+        heap.peakHeapMb = peakHeap.get() / (1024 * 1024);
+        return processed;
+    }
+
+    // 반복(SingleShotTime 이면 실행 한 번)마다의 최대 힙
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+        public long peakHeapMb;
+    }
+}
@@ -0,0 +1,92 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.entity.Team;
+import com.study.datajpa.repository.TeamRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 1,000명(팀 100개)을 팀 이름과 함께 MemberDto 로 변환할 때의 쿼리 수와 지연시간.
+ * batchSize=1 이 기존 동작(팀마다 SELECT, 약 101 쿼리), 100 이 배치 페치(2 쿼리).
+ * 쿼리 수는 결과의 statements 보조 지표로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchFetchBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"1", "100"})
+    int batchSize;
+
+    TransactionTemplate transactionTemplate;
+    EntityManagerFactory emf;
+    Statistics statistics;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"spring.jpa.properties.hibernate.default_batch_fetch_size=" + batchSize,
+                "datajpa.n-plus-one.mode=off"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        TeamRepository teamRepository = bean(TeamRepository.class);
+        List<Member> members = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            Team team = teamRepository.save(new Team("team" + t));
+            for (int m = 0; m < 10; m++) {
+                members.add(new Member("member" + t + "_" + m, m, team));
+            }
+        }
+        return members;
+    }
+
+    @Override
+    protected void setUp() {
+        transactionTemplate = bean(TransactionTemplate.class);
+        emf = bean(EntityManagerFactory.class);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Invocation)
+    public void evictCache() {
+        // 2차 캐시에서 팀을 꺼내 오면 쿼리 수 비교가 안 되므로 매번 비운다
+        emf.getCache().evictAll();
+    }
+
+    @Benchmark
+    public List<MemberDto> mapWithTeamName(Counters counters) {
+        long before = statistics.getPrepareStatementCount();
+        List<MemberDto> result = transactionTemplate.execute(status -> {
+            List<MemberDto> dtos = new ArrayList<>();
+            for (Member member : memberRepository.findMemberCustom()) {
+                dtos.add(new MemberDto(member.getId(), member.getUsername(), member.getTeam().getName()));
+            }
+            return dtos;
+        });
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.invocations++;
+        return result;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long statements;
+        public long invocations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            invocations = 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 행 단위 save 와 bulkImport 의 적재 시간 비교 (rows / 측정 시간 = rows/sec).
+ * 1M 행의 perRowSave 는 수 분이 걸리므로 필요할 때만 -p rows=1000000 으로 실행한다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BulkImportBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    List<Member> members;
+
+    @Setup(Level.Iteration)
+    public void prepareMembers() {
+        memberRepository.deleteAllInBatch();
+        members = members(rows);
+    }
+
+    @Benchmark
+    public void perRowSave() {
+        for (Member member : members) {
+            memberRepository.save(member);
+        }
+    }
+
+    @Benchmark
+    public int bulkImport() {
+        return memberRepository.bulkImport(members, 1000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.entity.Team;
+import com.study.datajpa.repository.TeamRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 팀 크기에 따른 changeTeam 한 번의 비용 (회원 한 명을 두 팀 사이에서 옮기고 커밋).
+ * 이전에는 팀 회원 컬렉션 전체를 로딩해서 팀 크기에 비례했고, 지금은 팀 크기와 무관해야 한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChangeTeamBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"10", "1000", "10000", "50000"})
+    int teamSize;
+
+    TeamRepository teamRepository;
+    TransactionTemplate transactionTemplate;
+    Long memberId;
+    Long teamAId;
+    Long teamBId;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"datajpa.n-plus-one.mode=off"};
+    }
+
+    @Override
+    protected void setUp() {
+        teamRepository = bean(TeamRepository.class);
+        transactionTemplate = bean(TransactionTemplate.class);
+
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        teamAId = teamA.getId();
+        teamBId = teamB.getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            Team a = teamRepository.findById(teamAId).get();
+            Team b = teamRepository.findById(teamBId).get();
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < teamSize; i++) {
+                members.add(new Member("a" + i, i % 100, a));
+                members.add(new Member("b" + i, i % 100, b));
+            }
+            memberRepository.bulkImport(members, 1000);
+        });
+        memberId = memberRepository.findByUsername("a0").get(0).getId();
+    }
+
+    @Benchmark
+    public void changeTeam() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(memberId).get();
+            Long target = member.getTeam().getId().equals(teamAId) ? teamBId : teamAId;
+            member.changeTeam(teamRepository.getReferenceById(target));
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.dto.MemberSearchCondition;
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username + 나이 조건 조회 한 번의 비용.
+ * 정적 @Query(findUser), 조건 조합별로 캐시한 search, 매번 criteria 를 새로 만드는 경우를 비교한다.
+ * search 는 페이지 크기가 필요하므로 criteria 쪽도 같은 수(PAGE_SIZE + 1)만 조회한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DynamicSearchBenchmark extends AbstractMemberBenchmark {
+
+    private static final int TOTAL_ROWS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    EntityManager em;
+    MemberSearchCondition condition;
+
+    @Override
+    protected List<Member> members() {
+        return members(TOTAL_ROWS);
+    }
+
+    @Override
+    protected void setUp() {
+        em = SharedEntityManagerCreator.createSharedEntityManager(bean(EntityManagerFactory.class));
+        condition = new MemberSearchCondition();
+        condition.setUsername("member42");
+        condition.setAgeGoe(42);
+        condition.setAgeLoe(42);
+    }
+
+    @Benchmark
+    public List<Member> staticQuery() {
+        return memberRepository.findUser("member42", 42);
+    }
+
+    @Benchmark
+    public List<Member> cachedSearch() {
+        return memberRepository.search(condition, PageRequest.of(0, PAGE_SIZE)).getContent();
+    }
+
+    @Benchmark
+    public List<Member> criteriaPerCall() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> cq = cb.createQuery(Member.class);
+        Root<Member> m = cq.from(Member.class);
+        cq.select(m).where(
+                cb.equal(m.get("username"), condition.getUsername()),
+                cb.ge(m.<Integer>get("age"), condition.getAgeGoe()),
+                cb.le(m.<Integer>get("age"), condition.getAgeLoe()))
+                .orderBy(cb.asc(m.get("id")));
+        return em.createQuery(cq).setMaxResults(PAGE_SIZE + 1).getResultList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findByNames 의 지연시간과 쿼리 계획 캐시 적중률 (IN 절 패딩 유무).
+ * 매 호출마다 maxSize 이하의 임의 크기를 사용하므로 패딩이 없으면 크기마다 계획이 새로 만들어진다.
+ * 적중률은 planHits / (planHits + planMisses) 보조 지표로 확인한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InClauseBenchmark extends AbstractMemberBenchmark {
+
+    private static final int TOTAL_ROWS = 20_000;
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    int maxSize;
+
+    @Param({"false", "true"})
+    boolean padding;
+
+    Statistics statistics;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"spring.jpa.properties.hibernate.query.in_clause_parameter_padding=" + padding};
+    }
+
+    @Override
+    protected List<Member> members() {
+        return members(TOTAL_ROWS);
+    }
+
+    @Override
+    protected void setUp() {
+        statistics = bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Benchmark
+    public List<Member> findByNames(Counters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = 1 + random.nextInt(maxSize);
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add("member" + random.nextInt(TOTAL_ROWS));
+        }
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        List<Member> result = memberRepository.findByNames(names);
+        counters.planHits += statistics.getQueryPlanCacheHitCount() - hits;
+        counters.planMisses += statistics.getQueryPlanCacheMissCount() - misses;
+        return result;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long planHits;
+        public long planMisses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            planHits = 0;
+            planMisses = 0;
+        }
+    }
+}
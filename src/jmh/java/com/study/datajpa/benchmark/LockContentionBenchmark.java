@@ -0,0 +1,73 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.service.MemberWriteService;
+import com.study.datajpa.service.WriteLockMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비관적 락(findLockById)과 낙관적 락 + 재시도의 경합 상황 비교.
+ * hotRows 개의 회원에 writer 스레드들이 무작위로 나이를 1씩 올린다.
+ * SampleTime 결과의 p0.99/p0.999 로 꼬리 지연을, 호출 수로 처리량을 본다.
+ * writer 수는 main 에서 8, 32, 128 로 바꿔 가며 실행한다 (jmh 태스크로 돌릴 때는 -t 옵션).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+public class LockContentionBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"1", "100"})
+    int hotRows;
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC"})
+    WriteLockMode mode;
+
+    MemberWriteService memberWriteService;
+    List<Long> ids;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"spring.datasource.hikari.maximum-pool-size=32", "datajpa.lock.max-attempts=1000"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < hotRows; i++) {
+            members.add(new Member("hot" + i, 0));
+        }
+        return members;
+    }
+
+    @Override
+    protected void setUp() {
+        memberWriteService = bean(MemberWriteService.class);
+        ids = new ArrayList<>();
+        memberRepository.findAll().forEach(member -> ids.add(member.getId()));
+    }
+
+    @Benchmark
+    public Member increment() {
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return memberWriteService.update(id, mode, member -> member.setAge(member.getAge() + 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int writers : new int[]{8, 32, 128}) {
+            Options options = new OptionsBuilder()
+                    .include(LockContentionBenchmark.class.getSimpleName())
+                    .threads(writers)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
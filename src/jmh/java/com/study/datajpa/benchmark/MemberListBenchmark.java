@@ -0,0 +1,67 @@
+package com.study.datajpa.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.entity.Team;
+import com.study.datajpa.repository.CountMode;
+import com.study.datajpa.repository.TeamRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /members 한 번의 조회 + JSON 직렬화 비용.
+ * entityPage 는 이전 경로(엔티티 조회 후 teamName = null 로 매핑), dtoPage 는 DTO 직접 조회 경로.
+ * 요청당 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberListBenchmark extends AbstractMemberBenchmark {
+
+    private static final int TOTAL_ROWS = 10_000;
+
+    @Param({"5", "50", "500"})
+    int pageSize;
+
+    ObjectMapper objectMapper;
+    PageRequest pageRequest;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"datajpa.n-plus-one.mode=off"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        List<Team> teams = bean(TeamRepository.class).saveAll(List.of(new Team("teamA"), new Team("teamB")));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < TOTAL_ROWS; i++) {
+            members.add(new Member(String.format("member%05d", i), i % 100, i % 3 == 0 ? null : teams.get(i % 2)));
+        }
+        return members;
+    }
+
+    @Override
+    protected void setUp() {
+        objectMapper = bean(ObjectMapper.class);
+        // 컨트롤러 기본값과 같은 정렬
+        pageRequest = PageRequest.of(1, pageSize, Sort.by(Sort.Direction.DESC, "username"));
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws Exception {
+        Page<Member> page = memberRepository.findPage(pageRequest, CountMode.CACHED);
+        return objectMapper.writeValueAsBytes(page.map(member -> new MemberDto(member.getId(), member.getUsername(), null)));
+    }
+
+    @Benchmark
+    public byte[] dtoPage() throws Exception {
+        return objectMapper.writeValueAsBytes(memberRepository.findMemberDtoPage(pageRequest, CountMode.CACHED));
+    }
+}
@@ -0,0 +1,82 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 n 명 조회: findById 를 n 번 (클라이언트가 /members/{id} 를 반복 호출하는 경우)과 multiLoad 한 번 비교.
+ * cold 는 매 호출 전에 2차 캐시를 비운 상태, warm 은 캐시에 모두 올라온 상태.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiGetBenchmark extends AbstractMemberBenchmark {
+
+    private static final int TOTAL_ROWS = 10_000;
+
+    @Param({"10", "100", "1000"})
+    int n;
+
+    @Param({"cold", "warm"})
+    String cache;
+
+    TransactionTemplate transactionTemplate;
+    EntityManagerFactory emf;
+    List<Long> ids;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"datajpa.n-plus-one.mode=off"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        return members(TOTAL_ROWS);
+    }
+
+    @Override
+    protected void setUp() {
+        transactionTemplate = bean(TransactionTemplate.class);
+        emf = bean(EntityManagerFactory.class);
+        List<Long> all = new ArrayList<>();
+        memberRepository.findAll().forEach(member -> all.add(member.getId()));
+        Collections.shuffle(all, new Random(42));
+        ids = new ArrayList<>(all.subList(0, n));
+        // warm: 모든 대상을 2차 캐시에 올려둔다
+        transactionTemplate.executeWithoutResult(status -> memberRepository.multiLoad(ids));
+    }
+
+    @Setup(Level.Invocation)
+    public void evict() {
+        if ("cold".equals(cache)) {
+            emf.getCache().evict(Member.class);
+        }
+    }
+
+    @Benchmark
+    public int sequentialFindById() {
+        return transactionTemplate.execute(status -> {
+            int found = 0;
+            for (Long id : ids) {
+                if (memberRepository.findById(id).isPresent()) {
+                    found++;
+                }
+            }
+            return found;
+        });
+    }
+
+    @Benchmark
+    public int multiLoad() {
+        return transactionTemplate.execute(status -> (int) memberRepository.multiLoad(ids).stream()
+                .filter(member -> member != null)
+                .count());
+    }
+}
@@ -0,0 +1,37 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.UsernameOnly;
+import com.study.datajpa.repository.support.CompiledProjectionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UsernameOnly(@Value SpEL) 프로젝션의 행당 비용: 기존 SpEL 평가 vs 미리 컴파일한 접근자.
+ * DB 를 거치지 않고 프로젝션 생성 + getUsername() 호출만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenProjectionBenchmark {
+
+    ProjectionFactory spelFactory = new SpelAwareProxyProjectionFactory();
+    ProjectionFactory compiledFactory = new CompiledProjectionFactory();
+    Member member = new Member("member1", 10);
+
+    @Benchmark
+    public String spel() {
+        return spelFactory.createProjection(UsernameOnly.class, member).getUsername();
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiledFactory.createProjection(UsernameOnly.class, member).getUsername();
+    }
+}
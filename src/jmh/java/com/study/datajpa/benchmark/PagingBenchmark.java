@@ -0,0 +1,58 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /members 의 OFFSET 페이징(findAll(pageable))과 키셋 페이징(findByCursor)의 페이지 깊이별 지연시간 비교.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PagingBenchmark extends AbstractMemberBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int TOTAL_ROWS = 100_010;
+
+    @Param({"1", "100", "10000"})
+    int page;
+
+    PageRequest pageRequest;
+    String cursor;
+
+    @Override
+    protected List<Member> members() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < TOTAL_ROWS; i++) {
+            members.add(new Member(String.format("member%06d", i), i % 100));
+        }
+        return members;
+    }
+
+    @Override
+    protected void setUp() {
+        pageRequest = PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "username", "id"));
+        // 키셋은 직전 페이지의 마지막 행을 커서로 사용
+        Member last = memberRepository.findAll(
+                PageRequest.of(page * PAGE_SIZE - 1, 1, Sort.by(Sort.Direction.DESC, "username", "id")))
+                .getContent().get(0);
+        cursor = MemberCursor.of(last).encode();
+    }
+
+    @Benchmark
+    public Page<Member> offset() {
+        return memberRepository.findAll(pageRequest);
+    }
+
+    @Benchmark
+    public Object keyset() {
+        return memberRepository.findByCursor(cursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.entity.Team;
+import com.study.datajpa.repository.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findProjectionsByUsername 등 같은 데이터를 읽는 프로젝션 방식별 처리량/할당량 비교.
+ * 할당량은 jmh 태스크에 기본으로 붙는 -prof gc 의 gc.alloc.rate.norm 을 본다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionBenchmark extends AbstractMemberBenchmark {
+
+    private static final String USERNAME = "bench";
+
+    @Param({"1", "100", "10000"})
+    int rows;
+
+    @Override
+    protected List<Member> members() {
+        Team team = bean(TeamRepository.class).save(new Team("benchTeam"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member(USERNAME, i, team));
+        }
+        return members;
+    }
+
+    @Benchmark
+    public void entity(Blackhole bh) {
+        for (Member member : memberRepository.findProjectionsByUsername(USERNAME, Member.class)) {
+            bh.consume(member.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void openProjection(Blackhole bh) {
+        for (UsernameOnly usernameOnly : memberRepository.findProjectionsByUsername(USERNAME, UsernameOnly.class)) {
+            bh.consume(usernameOnly.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void classProjection(Blackhole bh) {
+        for (UsernameOnlyDto dto : memberRepository.findProjectionsByUsername(USERNAME, UsernameOnlyDto.class)) {
+            bh.consume(dto.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void nestedClosedProjection(Blackhole bh) {
+        for (NestedClosedProjections projection : memberRepository.findProjectionsByUsername(USERNAME, NestedClosedProjections.class)) {
+            bh.consume(projection.getUsername());
+            bh.consume(projection.getTeam().getName());
+        }
+    }
+
+    @Benchmark
+    public void nativeProjection(Blackhole bh) {
+        for (MemberProjection projection : memberRepository.findByNativeProjection(PageRequest.of(0, rows))) {
+            bh.consume(projection.getusername());
+            bh.consume(projection.getTeamName());
+        }
+    }
+
+    @Benchmark
+    public void dtoConstructor(Blackhole bh) {
+        for (MemberDto dto : memberRepository.findMemberDto()) {
+            bh.consume(dto.getUsername());
+            bh.consume(dto.getTeamName());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.entity.Member;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기 전용 조회를 여러 스레드에서 동시에 호출할 때 replica 라우팅 유무에 따른 처리량 비교.
+ * 로컬에서는 replica 가 같은 H2 를 바라보므로 커넥션 풀이 둘로 나뉜 효과만 측정된다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class ReadRoutingBenchmark extends AbstractMemberBenchmark {
+
+    @Param({"false", "true"})
+    boolean replica;
+
+    @Override
+    protected String[] properties() {
+        return new String[]{"datajpa.datasource.replica.enabled=" + replica, "spring.datasource.hikari.maximum-pool-size=10"};
+    }
+
+    @Override
+    protected List<Member> members() {
+        return members(10_000);
+    }
+
+    @Benchmark
+    public Object findByAge() {
+        return memberRepository.findByAge(42, PageRequest.of(0, 10));
+    }
+}
@@ -0,0 +1,53 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.metrics.RepositoryMetrics;
+import com.study.datajpa.metrics.RepositoryMetricsInterceptor;
+import com.study.datajpa.metrics.SqlStatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 리포지토리 지표 기록 오버헤드: 같은 프록시 호출을 인터셉터 유무로 비교한다 (SQL 1건 검사 포함).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RepositoryMetricsBenchmark {
+
+    Supplier<List<String>> plain;
+    Supplier<List<String>> measured;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        Supplier<List<String>> target = () -> List.of(inspector.inspect("select m from member m"));
+
+        ProxyFactory plainFactory = new ProxyFactory(target);
+        plainFactory.addInterface(Supplier.class);
+        plain = (Supplier<List<String>>) plainFactory.getProxy();
+
+        ProxyFactory measuredFactory = new ProxyFactory(target);
+        measuredFactory.addInterface(Supplier.class);
+        measuredFactory.addAdvice(new RepositoryMetricsInterceptor(new RepositoryMetrics(), "BenchmarkRepository"));
+        measured = (Supplier<List<String>>) measuredFactory.getProxy();
+    }
+
+    @Benchmark
+    public List<String> withoutMetrics() {
+        return plain.get();
+    }
+
+    @Benchmark
+    public List<String> withMetrics() {
+        return measured.get();
+    }
+}
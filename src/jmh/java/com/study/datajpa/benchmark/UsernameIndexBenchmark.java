@@ -0,0 +1,66 @@
+package com.study.datajpa.benchmark;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.search.UsernameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username 100만 건 인덱스의 접두사 검색 지연시간 (SampleTime 의 p0.99 를 본다).
+ * delta 는 압축 직전 크기까지 채워서 base + delta 병합 비용까지 포함한다.
+ * 인덱스 메모리는 setUp 에서 estimatedBytes() 로 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class UsernameIndexBenchmark {
+
+    private static final int SIZE = 1_000_000;
+    private static final int DELTA = 9_999;
+
+    @Param({"2", "4", "6"})
+    int prefixLength;
+
+    UsernameIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UsernameIndex(DELTA + 1);
+        index.rebuild(new Iterator<>() {
+            long id;
+
+            @Override
+            public boolean hasNext() {
+                return id < SIZE;
+            }
+
+            @Override
+            public Object[] next() {
+                id++;
+                return new Object[]{id, username(id)};
+            }
+        });
+        for (long id = SIZE + 1; id <= SIZE + DELTA; id++) {
+            index.put(username(id), id);
+        }
+        System.out.printf("username index: %d entries, %.1f MB%n", SIZE + DELTA, index.estimatedBytes() / 1024.0 / 1024.0);
+    }
+
+    @Benchmark
+    public List<MemberDto> search() {
+        String username = username(1 + ThreadLocalRandom.current().nextLong(SIZE));
+        return index.search(username.substring(0, prefixLength), 10);
+    }
+
+    // 10자 username (소문자 + 숫자)
+    private static String username(long id) {
+        return "user" + String.format("%06d", (id * 2_654_435_761L) % 1_000_000);
+    }
+}
@@ -1,24 +1,117 @@
 package com.study.datajpa;
 
+import com.study.datajpa.audit.AuditorIds;
+import com.study.datajpa.audit.AuditorSource;
+import com.study.datajpa.audit.CachingAuditorAware;
+import com.study.datajpa.config.StartupPhaseRecorder;
+import com.study.datajpa.repository.support.DataJpaRepositoryFactoryBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.AbstractRepositoryConfigurationSourceSupport;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.jpa.repository.config.JpaRepositoryConfigExtension;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.data.repository.config.RepositoryConfigurationExtension;
 
+import java.lang.annotation.Annotation;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Supplier;
 
 @EnableJpaAuditing
 @SpringBootApplication
+@Import(DataJpaApplication.RepositoriesRegistrar.class)
 public class DataJpaApplication {
 
+	static final String BOOTSTRAP_MODE = "spring.data.jpa.repositories.bootstrap-mode";
+
 	public static void main(String[] args) {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
+	// 요청/트랜잭션마다 auditor 를 한 번만 구한다, 사용자 식별은 AuditorSource 빈으로 교체 가능
 	@Bean
-	public AuditorAware<String> auditorProvider(){
-		return ()->Optional.of(UUID.randomUUID().toString());
+	public CachingAuditorAware auditorProvider(ObjectProvider<AuditorSource> auditorSource,
+											   @Value("${datajpa.audit.cached:true}") boolean cached,
+											   @Value("${datajpa.audit.id-source:fast}") String idSource){
+		Supplier<String> ids = "secure".equalsIgnoreCase(idSource) ? AuditorIds::secure : AuditorIds::fast;
+		return new CachingAuditorAware(auditorSource.getIfAvailable(() -> Optional::empty), ids, cached);
+	}
+
+	// 부트스트랩 모드가 default 가 아니면 EntityManagerFactory 를 백그라운드에서 만든다 (실제 생성 시간은 StartupPhaseRecorder 가 기록)
+	@Bean
+	public EntityManagerFactoryBuilderCustomizer entityManagerFactoryBootstrapExecutorCustomizer(
+			Environment environment, Map<String, AsyncTaskExecutor> taskExecutors,
+			ObjectProvider<StartupPhaseRecorder> startupPhaseRecorder) {
+		return builder -> {
+			if (bootstrapMode(environment) == BootstrapMode.DEFAULT) {
+				return;
+			}
+			AsyncTaskExecutor executor = bootstrapExecutor(taskExecutors);
+			StartupPhaseRecorder recorder = startupPhaseRecorder.getIfAvailable();
+			builder.setBootstrapExecutor(recorder == null ? executor
+					: recorder.timed(StartupPhaseRecorder.ENTITY_MANAGER_FACTORY, executor));
+		};
+	}
+
+	static BootstrapMode bootstrapMode(Environment environment) {
+		return Binder.get(environment).bind(BOOTSTRAP_MODE, BootstrapMode.class).orElse(BootstrapMode.DEFERRED);
+	}
+
+	private static AsyncTaskExecutor bootstrapExecutor(Map<String, AsyncTaskExecutor> taskExecutors) {
+		if (taskExecutors.size() == 1) {
+			return taskExecutors.values().iterator().next();
+		}
+		return taskExecutors.get(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME);
+	}
+
+	/*
+	 * 리포지토리 팩토리를 직접 지정하면 부트의 리포지토리 자동 설정이 빠지므로
+	 * 부트의 JpaRepositoriesRegistrar 처럼 spring.data.jpa.repositories.bootstrap-mode (default / deferred / lazy) 를 읽어서 등록한다.
+	 * deferred/lazy 는 리포지토리를 컨텍스트 refresh 이후(또는 첫 사용 시) 생성한다.
+	 */
+	static class RepositoriesRegistrar extends AbstractRepositoryConfigurationSourceSupport {
+
+		private BootstrapMode bootstrapMode;
+
+		@Override
+		protected Class<? extends Annotation> getAnnotation() {
+			return EnableJpaRepositories.class;
+		}
+
+		@Override
+		protected Class<?> getConfiguration() {
+			return EnableJpaRepositoriesConfiguration.class;
+		}
+
+		@Override
+		protected RepositoryConfigurationExtension getRepositoryConfigurationExtension() {
+			return new JpaRepositoryConfigExtension();
+		}
+
+		@Override
+		protected BootstrapMode getBootstrapMode() {
+			return bootstrapMode;
+		}
+
+		@Override
+		public void setEnvironment(Environment environment) {
+			super.setEnvironment(environment);
+			this.bootstrapMode = bootstrapMode(environment);
+		}
+
+		@EnableJpaRepositories(repositoryFactoryBeanClass = DataJpaRepositoryFactoryBean.class)
+		private static class EnableJpaRepositoriesConfiguration {
+		}
 	}
 }
@@ -0,0 +1,26 @@
+package com.study.datajpa.audit;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 사용자가 없을 때 쓰는 임의 auditor ID.
+ * UUID.randomUUID() 는 공유 SecureRandom 을 거치므로 대신 ThreadLocalRandom 으로 버전 4 형식의 UUID 를 만든다.
+ * 추측 불가능할 필요가 없는 감사용 값에만 사용한다.
+ */
+public final class AuditorIds {
+
+    private AuditorIds() {
+    }
+
+    public static String fast() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    public static String secure() {
+        return UUID.randomUUID().toString();
+    }
+}
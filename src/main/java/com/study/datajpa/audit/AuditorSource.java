@@ -0,0 +1,13 @@
+package com.study.datajpa.audit;
+
+import java.util.Optional;
+
+/**
+ * 현재 사용자 식별자를 알려주는 확장 지점 (시큐리티 컨텍스트, 요청 헤더 등).
+ * 사용자가 없으면 빈 값을 돌려주고, 그 경우 CachingAuditorAware 가 임의 ID 를 만든다.
+ */
+@FunctionalInterface
+public interface AuditorSource {
+
+    Optional<String> currentUser();
+}
@@ -0,0 +1,83 @@
+package com.study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * auditor 를 한 번만 구해서 범위 안에서 재사용한다.
+ * 우선순위는 배치(withBatchAuditor) > 웹 요청 > 트랜잭션 이고, 어느 범위도 없으면 매번 새로 구한다.
+ * cached 가 false 이면 쓰기마다 새로 구한다 (이전 동작).
+ */
+public class CachingAuditorAware implements AuditorAware<String> {
+
+    private static final String KEY = CachingAuditorAware.class.getName() + ".AUDITOR";
+    private static final ThreadLocal<String> BATCH_AUDITOR = new ThreadLocal<>();
+
+    private final AuditorSource source;
+    private final Supplier<String> idSource;
+    private final boolean cached;
+
+    public CachingAuditorAware(AuditorSource source, Supplier<String> idSource, boolean cached) {
+        this.source = source;
+        this.idSource = idSource;
+        this.cached = cached;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (!cached) {
+            return Optional.of(resolve());
+        }
+        String auditor = BATCH_AUDITOR.get();
+        if (auditor != null) {
+            return Optional.of(auditor);
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            auditor = (String) request.getAttribute(KEY, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = resolve();
+                request.setAttribute(KEY, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Optional.of(auditor);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditor = (String) TransactionSynchronizationManager.getResource(KEY);
+            if (auditor == null) {
+                auditor = resolve();
+                TransactionSynchronizationManager.bindResource(KEY, auditor);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(KEY);
+                    }
+                });
+            }
+            return Optional.of(auditor);
+        }
+        return Optional.of(resolve());
+    }
+
+    // 벌크 작업 전체에 같은 auditor 를 사용 (트랜잭션이 여러 번 나뉘어도 동일)
+    public <T> T withBatchAuditor(Supplier<T> work) {
+        String previous = BATCH_AUDITOR.get();
+        BATCH_AUDITOR.set(previous != null ? previous : getCurrentAuditor().orElseGet(this::resolve));
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                BATCH_AUDITOR.remove();
+            }
+        }
+    }
+
+    private String resolve() {
+        return source.currentUser().orElseGet(idSource);
+    }
+}
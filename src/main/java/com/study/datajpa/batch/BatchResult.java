@@ -0,0 +1,15 @@
+package com.study.datajpa.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BatchResult {
+    // 이번 실행에서 처리한 건수 (재시작 전에 커밋된 청크는 포함하지 않음)
+    private final long processed;
+    private final long chunks;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,151 @@
+package com.study.datajpa.batch;
+
+import com.study.datajpa.entity.BatchCheckpoint;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.BatchCheckpointRepository;
+import com.study.datajpa.repository.MemberJpaRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 회원 전체에 엔티티 단위 로직을 적용하는 청크 배치.
+ * id 구간을 파티션으로 나누고, 파티션마다 id 키셋으로 chunkSize 건씩 읽어서 processor 를 적용한 뒤
+ * flush(JDBC 배치)/clear 하고 체크포인트와 함께 청크 단위로 커밋한다.
+ * 같은 jobName 으로 다시 실행하면 커밋된 체크포인트 다음부터 이어서 처리하고, 끝난 파티션은 건너뛴다.
+ */
+@Component
+public class MemberBatchEngine implements DisposableBean {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final BatchCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    // 파티션 실행용, 스레드 수를 넘는 파티션은 큐에서 기다린다
+    private final ThreadPoolTaskExecutor executor;
+
+    public MemberBatchEngine(MemberJpaRepository memberJpaRepository,
+                             BatchCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             TaskExecutorBuilder taskExecutorBuilder,
+                             @Value("${datajpa.batch.max-threads:4}") int maxThreads) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.executor = taskExecutorBuilder
+                .corePoolSize(maxThreads)
+                .maxPoolSize(maxThreads)
+                .threadNamePrefix("member-batch-")
+                .build();
+        this.executor.initialize();
+        // 바깥 트랜잭션이 있어도 청크마다 따로 커밋
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public BatchResult run(String jobName, int chunkSize, int partitions, Consumer<Member> processor) {
+        long start = System.nanoTime();
+        List<BatchCheckpoint> checkpoints = transactionTemplate.execute(status -> prepare(jobName, partitions));
+        List<long[]> results = new ArrayList<>();
+        if (checkpoints.size() <= 1) {
+            for (BatchCheckpoint checkpoint : checkpoints) {
+                results.add(runPartition(checkpoint.getId(), chunkSize, processor));
+            }
+        } else {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (BatchCheckpoint checkpoint : checkpoints) {
+                futures.add(executor.submit(() -> runPartition(checkpoint.getId(), chunkSize, processor)));
+            }
+            for (Future<long[]> future : futures) {
+                results.add(await(future));
+            }
+        }
+        long processed = results.stream().mapToLong(result -> result[0]).sum();
+        long chunks = results.stream().mapToLong(result -> result[1]).sum();
+        return new BatchResult(processed, chunks, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    // 작업 체크포인트를 지워서 처음부터 다시 실행할 수 있게 한다
+    public void reset(String jobName) {
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.deleteAll(checkpointRepository.findByIdStartingWithOrderByIdAsc(jobName + ":")));
+    }
+
+    // 처음 실행이면 id 구간을 partitions 개로 나눠 체크포인트를 만들고, 재시작이면 기존 구간을 그대로 사용
+    private List<BatchCheckpoint> prepare(String jobName, int partitions) {
+        List<BatchCheckpoint> checkpoints = checkpointRepository.findByIdStartingWithOrderByIdAsc(jobName + ":");
+        if (!checkpoints.isEmpty()) {
+            return checkpoints;
+        }
+        Long[] range = memberJpaRepository.idRange();
+        if (range == null) {
+            return checkpoints;
+        }
+        long lower = range[0] - 1;
+        long step = Math.max(1, (range[1] - lower + partitions - 1) / partitions);
+        for (int i = 0; i < partitions && lower < range[1]; i++) {
+            long upper = Math.min(lower + step, range[1]);
+            checkpoints.add(new BatchCheckpoint(jobName + ":" + i, lower, upper));
+            lower = upper;
+        }
+        return checkpointRepository.saveAll(checkpoints);
+    }
+
+    // 파티션 하나를 끝까지 처리, {처리 건수, 청크 수}
+    private long[] runPartition(String checkpointId, int chunkSize, Consumer<Member> processor) {
+        long processed = 0;
+        long chunks = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                BatchCheckpoint checkpoint = checkpointRepository.findById(checkpointId).orElseThrow();
+                if (checkpoint.isCompleted()) {
+                    return 0;
+                }
+                List<Member> chunk = memberJpaRepository.findChunk(checkpoint.getLastId(), checkpoint.getUpperId(), chunkSize);
+                chunk.forEach(processor);
+                if (!chunk.isEmpty()) {
+                    checkpoint.advance(chunk.get(chunk.size() - 1).getId(), chunk.size());
+                }
+                if (chunk.size() < chunkSize) {
+                    checkpoint.complete();
+                }
+                memberJpaRepository.flushAndClear();
+                return chunk.size();
+            });
+            if (count == 0) {
+                return new long[]{processed, chunks};
+            }
+            processed += count;
+            chunks++;
+        }
+    }
+
+    private static long[] await(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("batch interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.datajpa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member, Team 엔티티와 쿼리 결과용 2차 캐시 리전 설정.
+ * 컨텍스트마다 별도의 CacheManager 를 만들어서 테스트 컨텍스트끼리 캐시를 공유하지 않게 한다.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String MEMBER_REGION = "member";
+    public static final String TEAM_REGION = "team";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String COUNT_REGION = "member-count";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jpaCacheManager(@Value("${datajpa.cache.maximum-size:10000}") long maximumSize,
+                                        @Value("${datajpa.cache.ttl-seconds:600}") long ttlSeconds,
+                                        @Value("${datajpa.cache.count-ttl-seconds:30}") long countTtlSeconds) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("datajpa:jpa-cache-" + System.identityHashCode(this));
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        for (String region : new String[]{MEMBER_REGION, TEAM_REGION, QUERY_RESULTS_REGION}) {
+            cacheManager.createCache(region, regionConfiguration(maximumSize, ttlSeconds));
+        }
+        // 페이지 totalElements 용 count 결과는 짧게만 보관
+        cacheManager.createCache(COUNT_REGION, regionConfiguration(maximumSize, countTtlSeconds));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jcacheHibernatePropertiesCustomizer(CacheManager jpaCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, jpaCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,75 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 초기 회원 데이터를 기동을 막지 않고 별도 스레드에서 batchSize 단위로 입력한다.
+ * 입력이 끝날 때까지는 SeedingAwareAvailability 가 readiness 를 REFUSING_TRAFFIC 으로 보고한다.
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.seed.enabled", havingValue = "true", matchIfMissing = true)
+public class MemberSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberSeeder.class);
+
+    private final MemberRepository memberRepository;
+    private final SeedingAwareAvailability availability;
+    private final StartupPhaseRecorder startupPhaseRecorder;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int count;
+    private final int batchSize;
+
+    public MemberSeeder(MemberRepository memberRepository, SeedingAwareAvailability availability,
+                        StartupPhaseRecorder startupPhaseRecorder,
+                        @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                        @Value("${datajpa.seed.count:100}") int count,
+                        @Value("${datajpa.seed.batch-size:100}") int batchSize) {
+        // 잘못된 설정은 백그라운드 입력에서 묻히지 않도록 기동 시점에 실패시킨다
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("datajpa.seed.batch-size must be at least 1: " + batchSize);
+        }
+        this.memberRepository = memberRepository;
+        this.availability = availability;
+        this.startupPhaseRecorder = startupPhaseRecorder;
+        this.taskExecutor = taskExecutor;
+        this.count = count;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // 부트가 관리하는 applicationTaskExecutor (풀 크기/종료는 spring.task.execution.*)
+        taskExecutor.execute(this::seed);
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        try {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                members.add(new Member("user" + i, i));
+            }
+            memberRepository.bulkImport(members, batchSize);
+        } catch (RuntimeException e) {
+            log.error("member seeding failed", e);
+        } finally {
+            startupPhaseRecorder.record(StartupPhaseRecorder.SEEDING, System.nanoTime() - start);
+            log.info("startup phases (ms) {}", startupPhaseRecorder.report());
+            availability.seedingFinished();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.metrics.RepositoryMetrics;
+import com.study.datajpa.metrics.RepositoryMetricsInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 리포지토리 메서드별 SQL 지표.
+ * 스프링 데이터 리포지토리는 DataJpaRepositoryFactoryBean 이, 직접 만든 @Repository 클래스는 아래 어드바이저가 감싼다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    public static RepositoryMetrics repositoryMetrics() {
+        return new RepositoryMetrics();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryMetricsAdvisor(RepositoryMetrics repositoryMetrics) {
+        AnnotationMatchingPointcut pointcut = new AnnotationMatchingPointcut(Repository.class, true);
+        return new DefaultPointcutAdvisor(pointcut, new RepositoryMetricsInterceptor(repositoryMetrics));
+    }
+}
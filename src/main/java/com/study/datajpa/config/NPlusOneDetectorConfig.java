@@ -0,0 +1,28 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.metrics.NPlusOneDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * datajpa.n-plus-one.* 설정으로 컨텍스트별 NPlusOneDetector 를 만들고 하이버네이트 설정으로 넘긴다.
+ * 스프링 설정이 없는 환경(@DataJpaTest 등)에서는 NPlusOneIntegrator 가 같은 이름의 시스템 프로퍼티를 사용한다.
+ */
+@Configuration
+public class NPlusOneDetectorConfig {
+
+    @Bean
+    public NPlusOneDetector nPlusOneDetector(@Value("${datajpa.n-plus-one.mode:warn}") String mode,
+                                             @Value("${datajpa.n-plus-one.threshold:5}") int threshold) {
+        return new NPlusOneDetector(NPlusOneDetector.Mode.valueOf(mode.toUpperCase(Locale.ROOT)), threshold);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer nPlusOneDetectorHibernatePropertiesCustomizer(NPlusOneDetector nPlusOneDetector) {
+        return properties -> properties.put(NPlusOneDetector.SETTING, nPlusOneDetector);
+    }
+}
@@ -0,0 +1,122 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.dto.MemberSearchCondition;
+import com.study.datajpa.repository.CountMode;
+import com.study.datajpa.repository.MemberCursor;
+import com.study.datajpa.repository.MemberRepository;
+import com.study.datajpa.repository.UsernameOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 시 리포지토리 쿼리를 한 번씩 실행해서 JPQL 파싱, 파생 쿼리 생성, SQL 변환과 쿼리 계획 캐시를 미리 채운다.
+ * 결과가 비도록 존재하지 않는 값으로 호출하고 트랜잭션은 항상 롤백한다.
+ * datajpa.warmup.iterations 만큼 더 반복해서 JIT 도 데운다. 쿼리별 첫 실행 시간은 로그와 getTimings() 로 확인.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryWarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryWarmupRunner.class);
+    private static final String NONE = "__warmup__";
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int iterations;
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+
+    public QueryWarmupRunner(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                             @Value("${datajpa.warmup.iterations:0}") int iterations) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long total = System.nanoTime();
+        queries().forEach((name, query) -> {
+            long start = System.nanoTime();
+            execute(query);
+            timings.put(name, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            for (int i = 0; i < iterations; i++) {
+                execute(query);
+            }
+        });
+        if (log.isInfoEnabled()) {
+            timings.forEach((name, micros) -> log.info("query warm-up {} {}us", name, micros));
+            log.info("query warm-up finished: {} queries, {}ms", timings.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - total));
+        }
+    }
+
+    // 쿼리 이름 -> 첫 실행 시간(us)
+    public Map<String, Long> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    private void execute(Runnable query) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            query.run();
+        });
+    }
+
+    // 가장 흔한 조건 조합(username)만 미리 만들어 둔다
+    private static MemberSearchCondition warmupCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(NONE);
+        return condition;
+    }
+
+    private Map<String, Runnable> queries() {
+        PageRequest byUsername = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username"));
+        String cursor = new MemberCursor(NONE, 0L).encode();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByUsernameAndAgeGreaterThan", () -> memberRepository.findByUsernameAndAgeGreaterThan(NONE, -1));
+        queries.put("findByUsername", () -> memberRepository.findByUsername(NONE));
+        queries.put("findUser", () -> memberRepository.findUser(NONE, -1));
+        queries.put("findByNames", () -> memberRepository.findByNames(Arrays.asList(NONE, NONE + 1)));
+        queries.put("findListByUsername", () -> memberRepository.findListByUsername(NONE));
+        queries.put("findMemberByUsername", () -> memberRepository.findMemberByUsername(NONE));
+        queries.put("findOptionalByUsername", () -> memberRepository.findOptionalByUsername(NONE));
+        queries.put("findSliceByAge", () -> memberRepository.findSliceByAge(-1, byUsername));
+        queries.put("scrollByAge", () -> memberRepository.scrollByAge(-1, null, 10));
+        queries.put("findEntityGraphByUsername", () -> memberRepository.findEntityGraphByUsername(NONE));
+        queries.put("findReadOnlyByUsername", () -> memberRepository.findReadOnlyByUsername(NONE));
+        queries.put("findLockByUsername", () -> memberRepository.findLockByUsername(NONE));
+        queries.put("findLockById", () -> memberRepository.findLockById(-1L));
+        queries.put("findProjectionsByUsername", () -> memberRepository.findProjectionsByUsername(NONE, UsernameOnly.class));
+        queries.put("findByNativeQuery", () -> memberRepository.findByNativeQuery(NONE));
+        queries.put("findByCursor", () -> memberRepository.findByCursor(cursor, 5));
+        queries.put("searchByUsernamePrefix", () -> memberRepository.searchByUsernamePrefix(NONE, 10));
+        queries.put("findById", () -> memberRepository.findById(-1L));
+        queries.put("findVersionById", () -> memberRepository.findVersionById(-1L));
+        queries.put("search", () -> memberRepository.search(warmupCondition(), PageRequest.of(0, 10)));
+        queries.put("multiLoad", () -> memberRepository.multiLoad(Arrays.asList(-1L, -2L)));
+        // GET /members 와 같은 정렬/카운트 경로
+        queries.put("findPage", () -> memberRepository.findPage(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "username")),
+                CountMode.CACHED));
+        queries.put("findMemberDtoPage", () -> memberRepository.findMemberDtoPage(
+                PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "username")), CountMode.CACHED));
+        return queries;
+    }
+}
@@ -0,0 +1,101 @@
+package com.study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * primary / replica 커넥션 풀과 둘 사이를 고르는 라우팅 DataSource.
+ * datajpa.datasource.replica.url 을 비워 두면 replica 풀도 primary 와 같은 DB 를 바라본다 (로컬 H2 용).
+ * OSIV 로 요청 내내 EntityManager 가 열려 있어도 트랜잭션마다 다시 라우팅되도록 커넥션은 트랜잭션이 끝나면 반납한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.replica.enabled", havingValue = "true")
+public class ReplicationRoutingConfig {
+
+    // 부트의 DataSourceConfiguration.Hikari 처럼 spring.datasource.hikari.* 를 바인딩
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary-pool");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datajpa.datasource.replica.url:}") String url,
+                                              @Value("${datajpa.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(StringUtils.hasText(url) ? url : properties.determineUrl())
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica-pool");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 @Value("${datajpa.datasource.replica.lag-tolerance-ms:1000}") long lagToleranceMillis) {
+        ReplicationRoutingDataSource routingDataSource =
+                new ReplicationRoutingDataSource(TimeUnit.MILLISECONDS.toNanos(lagToleranceMillis));
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicationRoutingDataSource.PRIMARY, primaryDataSource);
+        targets.put(ReplicationRoutingDataSource.REPLICA, replicaDataSource);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // 기본값(DELAYED_ACQUISITION_AND_HOLD)이면 요청의 첫 트랜잭션이 고른 커넥션을 요청이 끝날 때까지 계속 쓴다
+    @Bean
+    public HibernatePropertiesCustomizer replicationRoutingHibernatePropertiesCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // read-your-writes 표시는 요청 단위로만 유지 (요청 밖의 스레드는 lag tolerance 가 지나면 만료)
+    @Bean
+    public OncePerRequestFilter readYourWritesFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    ReplicationRoutingDataSource.clearWriteMark();
+                }
+            }
+        };
+    }
+}
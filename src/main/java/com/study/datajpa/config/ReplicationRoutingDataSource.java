@@ -0,0 +1,83 @@
+package com.study.datajpa.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 로, 나머지는 primary 로 보낸다.
+ * 같은 스레드에서 최근 lagToleranceNanos 안에 쓰기가 커밋됐다면 복제 지연을 피하려고 읽기도 primary 로 보낸다.
+ * 쓰기 여부는 SqlStatementInspector 가 알려주는 insert/update/delete 로 판단하고, 커밋된 경우에만 표시한다.
+ * 트랜잭션의 readOnly 여부가 정해진 뒤에 커넥션을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+    private static final Object WRITE_TRACKER_KEY = new Object();
+
+    private final long lagToleranceNanos;
+
+    public ReplicationRoutingDataSource(long lagToleranceNanos) {
+        this.lagToleranceNanos = lagToleranceNanos;
+    }
+
+    public static void clearWriteMark() {
+        LAST_WRITE_NANOS.remove();
+    }
+
+    // 현재 트랜잭션에서 실행되는 SQL, DML 이면 커밋 후에 쓰기 표시
+    public static void onStatement(String sql) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !isWrite(sql)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.hasResource(WRITE_TRACKER_KEY)) {
+            WriteTracker tracker = new WriteTracker();
+            TransactionSynchronizationManager.bindResource(WRITE_TRACKER_KEY, tracker);
+            TransactionSynchronizationManager.registerSynchronization(tracker);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Long lastWrite = LAST_WRITE_NANOS.get();
+        if (lastWrite != null) {
+            if (System.nanoTime() - lastWrite < lagToleranceNanos) {
+                // read-your-writes
+                return PRIMARY;
+            }
+            LAST_WRITE_NANOS.remove();
+        }
+        return REPLICA;
+    }
+
+    private static boolean isWrite(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("insert") || statement.startsWith("update")
+                || statement.startsWith("delete") || statement.startsWith("merge");
+    }
+
+    // 쓰기를 실행한 트랜잭션에만 등록된다
+    private static class WriteTracker implements TransactionSynchronization {
+
+        @Override
+        public void afterCommit() {
+            LAST_WRITE_NANOS.set(System.nanoTime());
+        }
+
+        // 커밋/롤백과 상관없이 트랜잭션이 끝나면 항상 정리
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKER_KEY);
+        }
+    }
+}
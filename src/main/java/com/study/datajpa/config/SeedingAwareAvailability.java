@@ -0,0 +1,39 @@
+package com.study.datajpa.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.stereotype.Component;
+
+/**
+ * 초기 데이터 입력(MemberSeeder)이 끝나기 전에는 readiness 를 REFUSING_TRAFFIC 으로 보고한다 (/actuator/health/readiness 503).
+ * 부트가 기동 완료 시점에 ACCEPTING_TRAFFIC 을 기록해도 입력이 남아 있으면 조회 결과를 덮어쓴다.
+ * (이벤트로 상태를 되돌리면 부트의 ACCEPTING_TRAFFIC 이벤트와 순서가 보장되지 않는다)
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.seed.enabled", havingValue = "true", matchIfMissing = true)
+public class SeedingAwareAvailability extends ApplicationAvailabilityBean {
+
+    private volatile boolean seeding = true;
+
+    public void seedingFinished() {
+        seeding = false;
+    }
+
+    @Override
+    public <S extends AvailabilityState> S getState(Class<S> stateType, S defaultState) {
+        if (seeding && stateType == ReadinessState.class) {
+            return stateType.cast(ReadinessState.REFUSING_TRAFFIC);
+        }
+        return super.getState(stateType, defaultState);
+    }
+
+    @Override
+    public <S extends AvailabilityState> S getState(Class<S> stateType) {
+        if (seeding && stateType == ReadinessState.class) {
+            return stateType.cast(ReadinessState.REFUSING_TRAFFIC);
+        }
+        return super.getState(stateType);
+    }
+}
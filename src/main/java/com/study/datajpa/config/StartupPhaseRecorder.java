@@ -0,0 +1,131 @@
+package com.study.datajpa.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 시간을 단계별로 모아서 로그로 남긴다 (회귀 추적용).
+ * entityManagerFactory: EMF 생성 (비동기 부트스트랩이면 timed 로 감싼 실행기에서 실제로 만드는 시간)
+ * repositories: 리포지토리 팩토리 빈 초기화 (리포지토리 프록시와 쿼리 생성)
+ * seeding: MemberSeeder 의 초기 데이터 입력 (비동기, 기동 완료 후에 끝날 수 있다)
+ */
+@Component
+public class StartupPhaseRecorder implements BeanPostProcessor {
+
+    public static final String ENTITY_MANAGER_FACTORY = "entityManagerFactory";
+    public static final String REPOSITORIES = "repositories";
+    public static final String SEEDING = "seeding";
+
+    private static final Logger log = LoggerFactory.getLogger(StartupPhaseRecorder.class);
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    // 실행기에서 돌아간 작업 시간을 phase 로 기록 (비동기 EMF 부트스트랩용)
+    public AsyncTaskExecutor timed(String phase, AsyncTaskExecutor executor) {
+        return new AsyncTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                executor.execute(timed(phase, task));
+            }
+
+            @Override
+            @Deprecated
+            public void execute(Runnable task, long startTimeout) {
+                executor.execute(timed(phase, task), startTimeout);
+            }
+
+            @Override
+            public Future<?> submit(Runnable task) {
+                return executor.submit(timed(phase, task));
+            }
+
+            @Override
+            public <T> Future<T> submit(Callable<T> task) {
+                return executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return task.call();
+                    } finally {
+                        record(phase, System.nanoTime() - start);
+                    }
+                });
+            }
+        };
+    }
+
+    private Runnable timed(String phase, Runnable task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(phase, System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (phaseOf(bean) != null) {
+            started.put(beanName, System.nanoTime());
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Long start = started.remove(beanName);
+        String phase = phaseOf(bean);
+        if (start != null && phase != null) {
+            record(phase, System.nanoTime() - start);
+        }
+        return bean;
+    }
+
+    public synchronized void record(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    // 단계 -> 소요 시간(ms)
+    public synchronized Map<String, Long> report() {
+        Map<String, Long> report = new LinkedHashMap<>();
+        phases.forEach((phase, nanos) -> report.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logReport(ApplicationReadyEvent event) {
+        log.info("startup phases (ms) {}, total {}ms", report(), event.getTimeTaken().toMillis());
+    }
+
+    private static String phaseOf(Object bean) {
+        // 비동기 부트스트랩이면 빈 초기화는 작업 제출뿐이므로 timed 실행기에서 기록한다
+        if (bean instanceof AbstractEntityManagerFactoryBean
+                && ((AbstractEntityManagerFactoryBean) bean).getBootstrapExecutor() != null) {
+            return null;
+        }
+        if (bean instanceof EntityManagerFactoryInfo) {
+            return ENTITY_MANAGER_FACTORY;
+        }
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            return REPOSITORIES;
+        }
+        return null;
+    }
+}
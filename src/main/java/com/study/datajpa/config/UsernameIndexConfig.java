@@ -0,0 +1,41 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.search.UsernameIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+/**
+ * username 접두사 검색 인덱스. 기동 후 전체 회원으로 한 번 만들고, 이후 변경은 UsernameIndexListener 가 반영한다.
+ * 만들어지기 전에는 MemberRepository.searchByUsernamePrefix 가 DB 범위 조회로 대신한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.username-index.enabled", havingValue = "true", matchIfMissing = true)
+public class UsernameIndexConfig {
+
+    @Bean
+    public UsernameIndex usernameIndex(@Value("${datajpa.username-index.compact-threshold:10000}") int compactThreshold) {
+        return new UsernameIndex(compactThreshold);
+    }
+
+    @Bean
+    public ApplicationRunner usernameIndexLoader(UsernameIndex usernameIndex, EntityManager em,
+                                                 PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return args -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = em.createQuery("select m.id, m.username from Member m", Object[].class)
+                    .setHint("org.hibernate.fetchSize", 1000)
+                    .getResultStream()) {
+                usernameIndex.rebuild(rows.iterator());
+            }
+        });
+    }
+}
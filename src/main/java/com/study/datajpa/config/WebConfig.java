@@ -0,0 +1,22 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.controller.MemberConditionalGetInterceptor;
+import com.study.datajpa.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MemberRepository memberRepository;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // {id} 경로 변수가 없는 /members/search 등은 인터셉터가 건너뛴다
+        registry.addInterceptor(new MemberConditionalGetInterceptor(memberRepository))
+                .addPathPatterns("/members/*", "/members2/*");
+    }
+}
@@ -0,0 +1,43 @@
+package com.study.datajpa.controller;
+
+import com.study.datajpa.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> stats(){
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(CacheConfig.MEMBER_REGION, regionStats(statistics.getDomainDataRegionStatistics(CacheConfig.MEMBER_REGION)));
+        result.put(CacheConfig.TEAM_REGION, regionStats(statistics.getDomainDataRegionStatistics(CacheConfig.TEAM_REGION)));
+        result.put("secondLevelHit", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelMiss", statistics.getSecondLevelCacheMissCount());
+        result.put("queryCacheHit", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMiss", statistics.getQueryCacheMissCount());
+        result.put("queryPlanCacheHit", statistics.getQueryPlanCacheHitCount());
+        result.put("queryPlanCacheMiss", statistics.getQueryPlanCacheMissCount());
+        return result;
+    }
+
+    private Map<String, Long> regionStats(CacheRegionStatistics region){
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("hit", region.getHitCount());
+        result.put("miss", region.getMissCount());
+        result.put("put", region.getPutCount());
+        result.put("elementsInMemory", region.getElementCountInMemory());
+        return result;
+    }
+}
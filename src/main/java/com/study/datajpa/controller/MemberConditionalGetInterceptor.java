@@ -0,0 +1,74 @@
+package com.study.datajpa.controller;
+
+import com.study.datajpa.repository.MemberRepository;
+import com.study.datajpa.repository.MemberVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 회원 단건 조회(/members/{id}, /members2/{id})의 조건부 GET.
+ * If-None-Match / If-Modified-Since 가 있으면 핸들러(도메인 클래스 컨버터 포함)가 엔티티를 로딩하기 전에
+ * 버전/수정 시각만 조회해서 맞으면 304 로 끝낸다. 헤더가 없거나 맞지 않으면 핸들러가 조회한 값으로 ETag / Last-Modified 를 붙인다.
+ */
+@RequiredArgsConstructor
+public class MemberConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final MemberRepository memberRepository;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // 조건부 헤더가 없는 일반 요청은 핸들러가 조회한 값으로 ETag 를 붙인다
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long id = parseId(variables == null ? null : variables.get("id"));
+        if (id == null) {
+            return true;
+        }
+        // 없는 회원은 핸들러가 그대로 처리
+        Optional<MemberVersion> version = memberRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return true;
+        }
+        return !new ServletWebRequest(request, response)
+                .checkNotModified(etag(version.get().getVersion()), lastModified(version.get().getLastModifiedDate()));
+    }
+
+    static String etag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    static long lastModified(LocalDateTime lastModifiedDate) {
+        if (lastModifiedDate == null) {
+            return -1;
+        }
+        return lastModifiedDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Long parseId(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,45 +1,160 @@
 package com.study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.datajpa.dto.CursorSlice;
 import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.dto.MemberMultiGet;
 import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.CountMode;
+import com.study.datajpa.repository.MemberCursor;
 import com.study.datajpa.repository.MemberRepository;
+import com.study.datajpa.service.MemberLoadCoalescer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    private static final int MAX_MULTI_GET = 1000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_CURSOR_SIZE = 100;
+
     private final MemberRepository memberRepository;
+    private final MemberLoadCoalescer memberLoadCoalescer;
+    private final ObjectMapper objectMapper;
 
+    // 동시에 들어온 단건 조회는 MemberLoadCoalescer 가 하나의 IN 쿼리로 묶는다
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable("id") Long id){
-        Member member = memberRepository.findById(id).get();
+    public String findMember(@PathVariable("id") Long id, WebRequest request){
+        MemberDto member = memberLoadCoalescer.load(id).get();
+        if (request.checkNotModified(MemberConditionalGetInterceptor.etag(member.getVersion()),
+                MemberConditionalGetInterceptor.lastModified(member.getLastModifiedDate()))) {
+            return null;
+        }
         return member.getUsername();
     }
     @GetMapping("/members2/{id}")
-    public String findMember2(@PathVariable("id") Member member){
+    public String findMember2(@PathVariable("id") Member member, WebRequest request){
+        if (request.checkNotModified(MemberConditionalGetInterceptor.etag(member.getVersion()),
+                MemberConditionalGetInterceptor.lastModified(member.getLastModifiedDate()))) {
+            return null;
+        }
         return member.getUsername();
     }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(page = 1,size = 5,sort = "username", direction = Sort.Direction.DESC) Pageable pageable){
-        Page<Member> page = memberRepository.findAll(pageable);
-        return page.map((member -> new MemberDto(member.getId(), member.getUsername(), null)));
+    public Page<MemberDto> list(@PageableDefault(page = 1,size = 5,sort = "username", direction = Sort.Direction.DESC) Pageable pageable,
+                                WebRequest request){
+        // 조회한 페이지 내용과 전체 건수로 ETag 를 만들고, 그대로면 직렬화 없이 304
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(pageable, CountMode.CACHED);
+        if (request.checkNotModified(MemberConditionalGetInterceptor.etag(pageDigest(page)))) {
+            return null;
+        }
+        return page;
+    }
+
+    // 페이지 위치, 전체 건수, 각 행의 (id, username, teamName) 의 MD5 (문자열은 길이를 앞에 붙여 경계가 섞이지 않게)
+    private static String pageDigest(Page<MemberDto> page) {
+        StringBuilder content = new StringBuilder()
+                .append(page.getTotalElements()).append(',').append(page.getNumber()).append(',').append(page.getSize());
+        for (MemberDto member : page.getContent()) {
+            content.append(',').append(member.getId());
+            appendString(content, member.getUsername());
+            appendString(content, member.getTeamName());
+        }
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendString(StringBuilder content, String value) {
+        if (value == null) {
+            content.append(",-");
+        } else {
+            content.append(',').append(value.length()).append(':').append(value);
+        }
+    }
+
+    // /members?ids=3,1,2 : 한 번의 multiLoad 로 요청 순서대로 조회, 없는 id 는 missing 으로
+    @GetMapping(value = "/members", params = "ids")
+    public MemberMultiGet multiGet(@RequestParam("ids") List<Long> ids){
+        if (ids.size() > MAX_MULTI_GET) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must be at most " + MAX_MULTI_GET);
+        }
+        List<Optional<MemberDto>> found = memberLoadCoalescer.loadAll(ids);
+        List<MemberDto> members = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (found.get(i).isPresent()) {
+                members.add(found.get(i).get());
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        return new MemberMultiGet(members, missing);
+    }
+
+    @GetMapping("/members/cursor")
+    public CursorSlice<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size", defaultValue = "5") int size){
+        if (size < 1 || size > MAX_CURSOR_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_CURSOR_SIZE);
+        }
+        if (cursor != null) {
+            try {
+                MemberCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+            }
+        }
+        CursorSlice<Member> slice = memberRepository.findByCursor(cursor, size);
+        return slice.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+    }
+
+    // 입력 중인 username 접두사로 회원 검색 (type-ahead)
+    @GetMapping("/members/search")
+    public List<MemberDto> search(@RequestParam("prefix") String prefix,
+                                  @RequestParam(value = "limit", defaultValue = "10") int limit){
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        return memberRepository.searchByUsernamePrefix(prefix, Math.min(limit, MAX_SEARCH_LIMIT));
     }
 
-    @PostConstruct
-    public void init(){
-       for(int i = 0; i < 100; i++){
-           memberRepository.save(new Member("user" + i, i));
-       }
+    // 회원 전체를 NDJSON 으로 응답 스트림에 바로 기록 (스트림이 열려 있는 동안 트랜잭션 유지)
+    @GetMapping("/members/export")
+    @Transactional(readOnly = true)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 }
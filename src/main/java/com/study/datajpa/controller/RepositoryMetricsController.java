@@ -0,0 +1,22 @@
+package com.study.datajpa.controller;
+
+import com.study.datajpa.metrics.RepositoryMethodStats;
+import com.study.datajpa.metrics.RepositoryMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMetricsController {
+    private final RepositoryMetrics repositoryMetrics;
+
+    @GetMapping("/metrics/repositories")
+    public List<RepositoryMethodStats> repositories(){
+        return repositoryMetrics.snapshot();
+    }
+}
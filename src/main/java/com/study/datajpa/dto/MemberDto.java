@@ -1,19 +1,33 @@
 package com.study.datajpa.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
+
 @ToString
 @Getter
 public class MemberDto {
     private Long id;
     private String username;
     private String teamName;
+    // 단건 조회의 ETag / Last-Modified 용, 응답 본문에는 넣지 않는다
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private LocalDateTime lastModifiedDate;
 
     public MemberDto(Long id, String username, String teamName) {
         this.id = id;
         this.username = username;
         this.teamName = teamName;
     }
+
+    public MemberDto(Long id, String username, String teamName, Long version, LocalDateTime lastModifiedDate) {
+        this(id, username, teamName);
+        this.version = version;
+        this.lastModifiedDate = lastModifiedDate;
+    }
 }
@@ -0,0 +1,19 @@
+package com.study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 여러 id 조회 결과, members 는 요청한 순서 (없는 id 는 missing 에)
+@ToString
+@Getter
+public class MemberMultiGet {
+    private List<MemberDto> members;
+    private List<Long> missing;
+
+    public MemberMultiGet(List<MemberDto> members, List<Long> missing) {
+        this.members = members;
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,19 @@
+package com.study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// 회원 동적 검색 조건, null 인 조건은 적용하지 않는다
+@ToString
+@Getter @Setter
+public class MemberSearchCondition {
+    private String username;
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String teamName;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo; // 포함하지 않음
+}
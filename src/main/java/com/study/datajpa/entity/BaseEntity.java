@@ -11,6 +11,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @EntityListeners(AuditingEntityListener.class)
@@ -23,4 +24,8 @@ public class BaseEntity extends BaseTimeEntity {
     private String createBy;
     @LastModifiedBy
     private String lastModifiedBy;
+
+    // 낙관적 락 (벌크 update 도 직접 1 증가시킨다)
+    @Version
+    private Long version;
 }
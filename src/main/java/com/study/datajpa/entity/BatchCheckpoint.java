@@ -0,0 +1,45 @@
+package com.study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 배치 작업 파티션 하나의 진행 위치. 청크와 같은 트랜잭션에서 갱신되므로 커밋된 청크까지만 기록된다.
+ * 재시작하면 lastId 다음부터 upperId 까지 이어서 처리한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "lastId", "upperId", "processed", "completed"})
+public class BatchCheckpoint extends BaseTimeEntity {
+
+    // 작업 이름:파티션 번호
+    @Id
+    private String id;
+    // 마지막으로 처리한 id (이 값 초과부터 다음 청크)
+    private Long lastId;
+    // 파티션 상한 id (포함)
+    private Long upperId;
+    private long processed;
+    private boolean completed;
+
+    public BatchCheckpoint(String id, Long lastId, Long upperId) {
+        this.id = id;
+        this.lastId = lastId;
+        this.upperId = upperId;
+    }
+
+    public void advance(Long lastId, int count) {
+        this.lastId = lastId;
+        this.processed += count;
+    }
+
+    public void complete() {
+        this.completed = true;
+    }
+}
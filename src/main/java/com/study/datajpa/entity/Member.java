@@ -1,19 +1,36 @@
 package com.study.datajpa.entity;
 
+import com.study.datajpa.search.UsernameIndexListener;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = {
+        // username 조건 + 키셋 페이징 (username desc, member_id desc)
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"),
+        // age 조건 + username 정렬 (findSliceByAge, findByPage/findByPageAfter)
+        @Index(name = "idx_member_age_username_id", columnList = "age, username, member_id"),
+        // age 조건 + id 순 스크롤 (scrollByAge)
+        @Index(name = "idx_member_age_id", columnList = "age, member_id"),
+        @Index(name = "idx_member_team", columnList = "team_id")
+})
+@EntityListeners(UsernameIndexListener.class)
 @NamedQuery(
         name = "Member.findByUsername",
         query = "select m from Member m where m.username = :username"
 )
 public class Member extends BaseEntity {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
@@ -23,6 +40,10 @@ public class Member extends BaseEntity {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    // username 검색 인덱스에 마지막으로 반영된 값 (이름 변경 시 이전 항목을 지우는 데 사용)
+    @Transient
+    private String indexedUsername;
+
     public Member(String username) {
         this.username = username;
     }
@@ -40,11 +61,24 @@ public class Member extends BaseEntity {
         this.age = age;
     }
 
+    // 팀의 회원 컬렉션을 로딩하지 않고 소속만 바꾼다 (팀 회원 수는 flush 때 TeamMemberCountIntegrator 가 반영)
     public void changeTeam(Team team){
+        if(this.team == team){
+            return;
+        }
         if(this.team != null){
-            team.getMembers().remove(this);
+            this.team.removeMember(this);
         }
         this.team = team;
-        team.getMembers().add(this);
+        if(team != null){
+            team.addMember(this);
+        }
+    }
+
+    @PreRemove
+    private void leaveTeam(){
+        if(team != null){
+            team.removeMember(this);
+        }
     }
 }
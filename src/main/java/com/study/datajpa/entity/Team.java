@@ -1,26 +1,62 @@
 package com.study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team extends BaseEntity {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    // 소속 회원 변경으로 팀 version 이 올라가 팀 단위로 충돌하지 않도록 제외 (memberCount 도 마찬가지)
+    // EXTRA: size()/contains() 는 컬렉션을 초기화하지 않고 쿼리로 처리
+    @OptimisticLock(excluded = true)
+    @LazyCollection(LazyCollectionOption.EXTRA)
+    @BatchSize(size = 500)
     @OneToMany(mappedBy = "team")
-    private List<Member> members = new ArrayList<>();
+    private Set<Member> members = new HashSet<>();
+
+    // 비정규화된 소속 회원 수, TeamMemberCountIntegrator 가 원자적 update 로만 변경
+    // (팀 version 에서 제외하고, 팀을 수정할 때 메모리의 이전 값을 덮어쓰지 않도록 updatable = false)
+    @Setter(AccessLevel.NONE)
+    @OptimisticLock(excluded = true)
+    @Column(updatable = false)
+    private int memberCount;
 
     public Team(String name) {
         this.name = name;
     }
+
+    // 연관관계 주인은 Member.team 이므로 컬렉션은 이미 로딩된 경우에만 맞춰 준다
+    void addMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.add(member);
+        }
+    }
+
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
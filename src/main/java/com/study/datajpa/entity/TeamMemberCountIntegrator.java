@@ -0,0 +1,139 @@
+package com.study.datajpa.entity;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Team.memberCount 를 엔티티 필드 증감 대신 원자적 update 로 맞춘다.
+ * Member insert/소속 변경/delete 이벤트에서 팀별 증감을 모아 두었다가 flush 가 끝날 때
+ * HQL 벌크 update (memberCount = memberCount + :delta) 로 반영하므로, 팀 version 이 오르지 않아
+ * 같은 팀에 동시에 들어오고 나가도 충돌하지 않고, 중간에 clear 된 Team 객체와도 상관없다.
+ * 벌크 update 라서 Team 2차 캐시는 하이버네이트가 트랜잭션 완료 전후로 비운다.
+ * 증감은 트랜잭션 단위로 모으고, flush 가 실패해 반영되지 못한 증감은 트랜잭션이 끝날 때 버린다.
+ * META-INF/services 로 등록되므로 @DataJpaTest 에서도 동작한다.
+ */
+public class TeamMemberCountIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        MemberCountListener listener = new MemberCountListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        // 기본 flush 리스너가 SQL 을 모두 실행한 다음에 호출된다
+        registry.appendListeners(EventType.FLUSH, listener);
+        registry.appendListeners(EventType.AUTO_FLUSH, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    static class MemberCountListener implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+
+        // 진행 중인 트랜잭션의 세션별 팀 id -> 증감, 트랜잭션이 끝나면 커밋/롤백과 상관없이 지운다
+        private final Map<EventSource, Map<Long, Integer>> pending = new ConcurrentHashMap<>();
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Member) {
+                add(event.getSession(), teamId(event.getSession(), event.getPersister(), event.getState()), 1);
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+                return;
+            }
+            Long before = teamId(event.getSession(), event.getPersister(), event.getOldState());
+            Long after = teamId(event.getSession(), event.getPersister(), event.getState());
+            if (!Objects.equals(before, after)) {
+                add(event.getSession(), before, -1);
+                add(event.getSession(), after, 1);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Member) {
+                add(event.getSession(), teamId(event.getSession(), event.getPersister(), event.getDeletedState()), -1);
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+
+        @Override
+        public void onFlush(FlushEvent event) {
+            apply(event.getSession());
+        }
+
+        @Override
+        public void onAutoFlush(AutoFlushEvent event) {
+            apply(event.getSession());
+        }
+
+        private void add(EventSource session, Long teamId, int delta) {
+            if (teamId != null) {
+                pending.computeIfAbsent(session, this::open).merge(teamId, delta, Integer::sum);
+            }
+        }
+
+        private Map<Long, Integer> open(EventSource session) {
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> pending.remove(session));
+            return new HashMap<>();
+        }
+
+        private void apply(EventSource session) {
+            Map<Long, Integer> deltas = pending.get(session);
+            if (deltas == null || deltas.isEmpty()) {
+                return;
+            }
+            // executeUpdate 가 다시 auto flush 를 부르므로 먼저 비운다
+            Map<Long, Integer> applying = new HashMap<>(deltas);
+            deltas.clear();
+            applying.forEach((teamId, delta) -> {
+                if (delta != 0) {
+                    session.createQuery("update Team t set t.memberCount = t.memberCount + :delta where t.id = :id")
+                            .setParameter("delta", delta)
+                            .setParameter("id", teamId)
+                            .executeUpdate();
+                }
+            });
+        }
+
+        private static Long teamId(EventSource session, EntityPersister persister, Object[] state) {
+            Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+            return team == null ? null : (Long) session.getFactory().getPersistenceUnitUtil().getIdentifier(team);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.study.datajpa.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 웹 요청 하나를 N+1 감지 범위로 사용
+@Component
+@RequiredArgsConstructor
+public class NPlusOneDetectionFilter extends OncePerRequestFilter {
+
+    private final NPlusOneDetector nPlusOneDetector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (NPlusOneDetector.Scope ignored = nPlusOneDetector.openScope()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
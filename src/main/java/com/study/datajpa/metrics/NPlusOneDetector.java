@@ -0,0 +1,160 @@
+package com.study.datajpa.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 요청(또는 트랜잭션) 단위로 지연 로딩 쿼리를 세어서 N+1 을 찾아낸다.
+ * 같은 엔티티/컬렉션의 지연 로딩 SQL 이 threshold 를 넘으면 WARN 모드는 로그를 남기고 FAIL 모드는 예외를 던진다.
+ * 설정은 인스턴스(컨텍스트별 빈)에 두고, 하이버네이트에는 SETTING 프로퍼티로 넘겨서 NPlusOneIntegrator 가 꺼내 쓴다.
+ * 범위는 스레드에 묶이고 열 때의 설정을 그대로 가진다.
+ */
+public class NPlusOneDetector {
+
+    public enum Mode { OFF, WARN, FAIL }
+
+    // 하이버네이트 설정 맵에 감지기 인스턴스를 넣는 키
+    public static final String SETTING = "datajpa.n_plus_one.detector";
+
+    private static final Logger log = LoggerFactory.getLogger(NPlusOneDetector.class);
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final Mode mode;
+    private final int threshold;
+
+    public NPlusOneDetector(Mode mode, int threshold) {
+        this.mode = mode;
+        this.threshold = threshold;
+    }
+
+    // 스프링 설정이 없는 환경(@DataJpaTest 등)에서는 같은 이름의 시스템 프로퍼티를 사용한다
+    public static NPlusOneDetector fromSystemProperties() {
+        return new NPlusOneDetector(
+                Mode.valueOf(System.getProperty("datajpa.n-plus-one.mode", "warn").toUpperCase(Locale.ROOT)),
+                Integer.getInteger("datajpa.n-plus-one.threshold", 5));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // 이 감지기의 설정으로 범위를 연다, 닫으면 이전 범위로 돌아간다
+    public Scope openScope() {
+        return openScope(mode, threshold);
+    }
+
+    // 이 범위에서만 다른 설정을 쓴다 (테스트 등)
+    public Scope openScope(Mode mode, int threshold) {
+        Scope scope = new Scope(mode, threshold, SCOPE.get());
+        SCOPE.set(scope);
+        return scope;
+    }
+
+    void lazyLoadStarted(String role) {
+        Scope scope = scope();
+        if (scope != null) {
+            scope.pendingRole = role;
+        }
+    }
+
+    void lazyLoadFinished() {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.pendingRole = null;
+        }
+    }
+
+    // 엔티티가 로딩될 때 실행 중인 리포지토리 메서드를 기억해 둔다 (이후 지연 로딩의 출처)
+    void entityLoaded() {
+        RepositoryInvocationContext invocation = RepositoryInvocationContext.current();
+        if (invocation == null) {
+            return;
+        }
+        Scope scope = scope();
+        if (scope != null) {
+            scope.lastRepositoryMethod = invocation.getMethod();
+        }
+    }
+
+    static void onStatement(String sql) {
+        Scope scope = SCOPE.get();
+        if (scope == null || scope.mode == Mode.OFF) {
+            return;
+        }
+        RepositoryInvocationContext invocation = RepositoryInvocationContext.current();
+        if (invocation != null) {
+            scope.lastRepositoryMethod = invocation.getMethod();
+        }
+        String role = scope.pendingRole;
+        if (role == null) {
+            return;
+        }
+        // 지연 로딩 한 번당 첫 SQL 만 센다 (배치 페치면 여러 프록시가 한 번에 초기화된다)
+        scope.pendingRole = null;
+        int count = scope.lazyLoads.merge(role, 1, Integer::sum);
+        if (count == scope.threshold + 1) {
+            scope.report(role, count, sql);
+        }
+    }
+
+    // 요청 범위가 없으면 현재 트랜잭션이 끝날 때까지를 범위로 잡는다
+    private Scope scope() {
+        Scope scope = SCOPE.get();
+        if (scope == null && mode != Mode.OFF && TransactionSynchronizationManager.isSynchronizationActive()) {
+            Scope transactionScope = openScope();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (SCOPE.get() == transactionScope) {
+                        transactionScope.close();
+                    }
+                }
+            });
+            scope = transactionScope;
+        }
+        return scope == null || scope.mode == Mode.OFF ? null : scope;
+    }
+
+    public static class Scope implements AutoCloseable {
+        private final Mode mode;
+        private final int threshold;
+        private final Scope previous;
+        private final Map<String, Integer> lazyLoads = new HashMap<>();
+        private String pendingRole;
+        private String lastRepositoryMethod;
+
+        private Scope(Mode mode, int threshold, Scope previous) {
+            this.mode = mode;
+            this.threshold = threshold;
+            this.previous = previous;
+        }
+
+        private void report(String role, int count, String sql) {
+            String message = String.format("N+1 query suspected: %d lazy loads of %s after %s, sql=%s",
+                    count, role, lastRepositoryMethod == null ? "unknown repository method" : lastRepositoryMethod, sql);
+            if (mode == Mode.FAIL) {
+                throw new NPlusOneQueryException(message);
+            }
+            log.warn(message);
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.study.datajpa.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * 프록시 초기화(IMMEDIATE_LOAD)와 컬렉션 초기화 앞뒤에 리스너를 붙여서 지연 로딩 구간을 NPlusOneDetector 에 알린다.
+ * 감지기는 하이버네이트 설정의 NPlusOneDetector.SETTING 에서 꺼내고, 없으면 시스템 프로퍼티로 만든다.
+ * META-INF/services 로 등록되므로 @DataJpaTest 에서도 동작한다.
+ */
+public class NPlusOneIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        Object setting = serviceRegistry.getService(ConfigurationService.class).getSettings().get(NPlusOneDetector.SETTING);
+        NPlusOneDetector detector = setting instanceof NPlusOneDetector
+                ? (NPlusOneDetector) setting : NPlusOneDetector.fromSystemProperties();
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+
+        registry.prependListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                detector.lazyLoadStarted(event.getEntityClassName());
+            }
+        });
+        registry.appendListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                detector.lazyLoadFinished();
+            }
+        });
+        registry.prependListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                detector.lazyLoadStarted(event.getCollection().getRole()));
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                detector.lazyLoadFinished());
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> detector.entityLoaded());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.study.datajpa.metrics;
+
+public class NPlusOneQueryException extends RuntimeException {
+
+    public NPlusOneQueryException(String message) {
+        super(message);
+    }
+}
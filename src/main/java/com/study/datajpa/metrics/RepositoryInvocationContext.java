@@ -0,0 +1,50 @@
+package com.study.datajpa.metrics;
+
+/**
+ * 현재 스레드에서 실행 중인 리포지토리 메서드. SqlStatementInspector 가 여기에 SQL 실행 횟수를 누적한다.
+ * 리포지토리 안에서 다른 리포지토리를 호출하면 스택처럼 쌓이고, 끝날 때 바깥 호출에 합산된다.
+ */
+public final class RepositoryInvocationContext {
+
+    private static final ThreadLocal<RepositoryInvocationContext> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final RepositoryInvocationContext parent;
+    private long statementCount;
+
+    private RepositoryInvocationContext(String method, RepositoryInvocationContext parent) {
+        this.method = method;
+        this.parent = parent;
+    }
+
+    public static RepositoryInvocationContext push(String method) {
+        RepositoryInvocationContext context = new RepositoryInvocationContext(method, CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static RepositoryInvocationContext current() {
+        return CURRENT.get();
+    }
+
+    public void pop() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            parent.statementCount += statementCount;
+            CURRENT.set(parent);
+        }
+    }
+
+    void onStatement() {
+        statementCount++;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+}
@@ -0,0 +1,23 @@
+package com.study.datajpa.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class RepositoryMethodMetrics {
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long elapsedNanos, long statementCount, long rowCount) {
+        invocations.increment();
+        statements.add(statementCount);
+        rows.add(rowCount);
+        latency.record(elapsedNanos);
+    }
+
+    RepositoryMethodStats snapshot(String method) {
+        return new RepositoryMethodStats(method, invocations.sum(), statements.sum(), rows.sum(),
+                latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999));
+    }
+}
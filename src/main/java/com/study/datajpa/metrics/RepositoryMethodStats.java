@@ -0,0 +1,29 @@
+package com.study.datajpa.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+@ToString
+@Getter
+public class RepositoryMethodStats {
+    private String method;
+    private long invocations;
+    private long statements;
+    private long rows;
+    private long p50Micros;
+    private long p99Micros;
+    private long p999Micros;
+
+    public RepositoryMethodStats(String method, long invocations, long statements, long rows,
+                                 long p50Nanos, long p99Nanos, long p999Nanos) {
+        this.method = method;
+        this.invocations = invocations;
+        this.statements = statements;
+        this.rows = rows;
+        this.p50Micros = TimeUnit.NANOSECONDS.toMicros(p50Nanos);
+        this.p99Micros = TimeUnit.NANOSECONDS.toMicros(p99Nanos);
+        this.p999Micros = TimeUnit.NANOSECONDS.toMicros(p999Nanos);
+    }
+}
@@ -0,0 +1,26 @@
+package com.study.datajpa.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 리포지토리 메서드별 호출 수, SQL 실행 수, 반환 행 수, 지연시간 분포.
+ */
+public class RepositoryMetrics {
+
+    private final Map<String, RepositoryMethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    public void record(String method, long elapsedNanos, long statementCount, long rowCount) {
+        metrics.computeIfAbsent(method, key -> new RepositoryMethodMetrics())
+                .record(elapsedNanos, statementCount, rowCount);
+    }
+
+    public List<RepositoryMethodStats> snapshot() {
+        return metrics.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted((a, b) -> a.getMethod().compareTo(b.getMethod()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.study.datajpa.metrics;
+
+import com.study.datajpa.dto.CursorSlice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+/**
+ * 리포지토리 호출을 감싸서 메서드별 지표를 기록한다.
+ * 스프링 데이터 리포지토리는 인터페이스 이름을, 직접 만든 @Repository 는 클래스 이름을 앞에 붙인다.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final RepositoryMetrics metrics;
+    private final String repositoryName;
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(RepositoryMetrics metrics, String repositoryName) {
+        this.metrics = metrics;
+        this.repositoryName = repositoryName;
+    }
+
+    public RepositoryMetricsInterceptor(RepositoryMetrics metrics) {
+        this(metrics, null);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryInvocationContext context = RepositoryInvocationContext.push(methodName(invocation));
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            context.pop();
+            metrics.record(context.getMethod(), elapsed, context.getStatementCount(), rowCount(result));
+        }
+    }
+
+    private String methodName(MethodInvocation invocation) {
+        String repository = repositoryName;
+        if (repository == null) {
+            repository = AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+        }
+        String prefix = repository;
+        return methodNames.computeIfAbsent(invocation.getMethod(), method -> prefix + "." + method.getName());
+    }
+
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof CursorSlice) {
+            return ((CursorSlice<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof BaseStream) {
+            // 건수/스칼라 결과, 스트림은 호출 시점에 행 수를 알 수 없다
+            return 0;
+        }
+        return 1;
+    }
+}
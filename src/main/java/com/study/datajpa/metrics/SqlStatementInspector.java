@@ -0,0 +1,22 @@
+package com.study.datajpa.metrics;
+
+import com.study.datajpa.config.ReplicationRoutingDataSource;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 하이버네이트가 실행하는 모든 SQL 을 현재 리포지토리 호출에 귀속시키고 N+1 감지기와 replica 라우팅(쓰기 표시)에 넘긴다.
+ * hibernate.session_factory.statement_inspector 에 클래스 이름으로 등록한다.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RepositoryInvocationContext context = RepositoryInvocationContext.current();
+        if (context != null) {
+            context.onStatement();
+        }
+        NPlusOneDetector.onStatement(sql);
+        ReplicationRoutingDataSource.onStatement(sql);
+        return sql;
+    }
+}
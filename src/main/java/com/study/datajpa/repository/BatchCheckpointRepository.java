@@ -0,0 +1,11 @@
+package com.study.datajpa.repository;
+
+import com.study.datajpa.entity.BatchCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {
+
+    List<BatchCheckpoint> findByIdStartingWithOrderByIdAsc(String prefix);
+}
@@ -0,0 +1,14 @@
+package com.study.datajpa.repository;
+
+/**
+ * 페이지 조회 시 전체 건수(totalElements)를 구하는 방법.
+ * 어떤 모드든 마지막 페이지처럼 건수를 알 수 있는 경우에는 count 쿼리를 생략한다.
+ */
+public enum CountMode {
+    // 매번 count 쿼리
+    EXACT,
+    // 쿼리 캐시에 짧은 TTL 로 보관, Member 테이블이 변경되면 하이버네이트가 무효화
+    CACHED,
+    // H2 테이블 통계의 추정치 (호출자가 명시적으로 선택할 때만)
+    APPROXIMATE
+}
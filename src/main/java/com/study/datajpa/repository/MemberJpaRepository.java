@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
@@ -27,6 +28,15 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    // 결과를 한 번에 List 로 올리지 않고 커서로 읽으면서, 읽은 엔티티는 바로 준영속 상태로 만든다
+    public Stream<Member> streamAll(int fetchSize){
+        return em.createQuery("select m from Member m", Member.class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(em::detach);
+    }
+
     public Optional<Member> findById(Long id){
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member);
@@ -59,6 +69,41 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    // findByPage 의 키셋 버전: 직전 페이지 마지막 회원의 (username, id) 다음부터 조회
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit){
+        return em.createQuery("select m from Member m where m.age = :age " +
+                        "and m.username <= :username and (m.username < :username or m.id < :id) " +
+                        "order by m.username desc, m.id desc", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // 배치 청크: (afterId, upperId] 구간을 id 순으로 size 건
+    public List<Member> findChunk(Long afterId, Long upperId, int size){
+        return em.createQuery("select m from Member m where m.id > :afterId and m.id <= :upperId " +
+                        "order by m.id", Member.class)
+                .setParameter("afterId", afterId)
+                .setParameter("upperId", upperId)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    // [최소 id, 최대 id], 회원이 없으면 null
+    public Long[] idRange(){
+        Object[] range = em.createQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                .getSingleResult();
+        return range[0] == null ? null : new Long[]{(Long) range[0], (Long) range[1]};
+    }
+
+    // 청크 단위로 변경 내용을 JDBC 배치로 내보내고 영속성 컨텍스트를 비운다
+    public void flushAndClear(){
+        em.flush();
+        em.clear();
+    }
+
     public long totalCount(int age){
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
@@ -66,9 +111,6 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age){
-        return em.createQuery("update Member m set m.age = m.age + 1 " +
-                "where m.age >= :age")
-                .setParameter("age", age)
-                .executeUpdate();
+        return MemberRepositoryImpl.bulkAgePlus(em, age);
     }
 }
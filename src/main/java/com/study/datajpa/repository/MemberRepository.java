@@ -1,5 +1,6 @@
 package com.study.datajpa.repository;
 
+import com.study.datajpa.config.CacheConfig;
 import com.study.datajpa.dto.MemberDto;
 import com.study.datajpa.entity.Member;
 import org.springframework.data.domain.Page;
@@ -7,14 +8,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface MemberRepository extends JpaRepository<Member, Long> , MemberRepositoryCustom{
+public interface MemberRepository extends JpaRepository<Member, Long> , MemberRepositoryCustom, ScrollRepository<Member, Long> {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -31,23 +33,34 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
             "from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names ")
-    List<Member> findByNames(@Param("names") Collection<String> names);
+    // 대용량 export 용: 엔티티를 영속성 컨텍스트에 올리지 않고 fetch size 단위로 커서 조회
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select new com.study.datajpa.dto.MemberDto(m.id, m.username, t.name) " +
+            "from Member m left join m.team t")
+    Stream<MemberDto> streamMemberDto();
 
     // 반환 타입
     List<Member> findListByUsername(String username);
     Member findMemberByUsername(String username);
     Optional<Member> findOptionalByUsername(String username);
 
+    // count 결과는 쿼리 캐시에 보관 (Member 가 변경되면 하이버네이트가 무효화)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.COUNT_REGION)},
+            forCounting = true)
     @Query(value = "select m from Member m left join m.team t",
             countQuery = "select count(m.username) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
 
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
-    @Modifying
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    // findSliceByAge 의 스크롤 버전: 직전 Slice 의 마지막 id 다음부터 (age, member_id) 인덱스로 size 건
+    default Slice<Member> scrollByAge(int age, Long afterId, int size) {
+        return scroll((root, query, cb) -> cb.equal(root.get("age"), age), afterId, size);
+    }
 
     @Override
     @EntityGraph(attributePaths = {"team"})
@@ -63,9 +76,18 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
+    // 기본 readOnly 트랜잭션이면 replica 로 라우팅되므로 쓰기 트랜잭션으로 실행
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Member> findLockById(Long id);
+
+    @Query("select m.version as version, m.lastModifiedDate as lastModifiedDate from Member m where m.id = :id")
+    Optional<MemberVersion> findVersionById(@Param("id") Long id);
+
    <T>List<T> findProjectionsByUsername(@Param("username") String name, Class<T> type);
 
    @Query(value = "select * from member where username = ?", nativeQuery = true)
@@ -1,9 +1,50 @@
 package com.study.datajpa.repository;
 
+import com.study.datajpa.dto.CursorSlice;
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.dto.MemberSearchCondition;
 import com.study.datajpa.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // IN 절 파라미터는 2의 거듭제곱으로 패딩되고, 아주 큰 컬렉션은 여러 쿼리로 나눠서 합친다
+    List<Member> findByNames(Collection<String> names);
+
+    // 영속성 컨텍스트, 2차 캐시를 먼저 확인하고 나머지만 IN 쿼리로 조회, ids 순서대로 반환하고 없는 id 자리는 null
+    List<Member> multiLoad(List<Long> ids);
+
+    // username desc, id desc 순서의 키셋 페이징 (count 쿼리 없음), cursor 가 null 이면 첫 페이지
+    // size 는 1 이상 Integer.MAX_VALUE 미만 (다음 페이지 확인용으로 하나 더 조회)
+    CursorSlice<Member> findByCursor(String cursor, int size);
+
+    // JDBC 배치 insert, batchSize(1 이상) 건마다 flush/clear 하므로 호출 전 영속성 컨텍스트도 함께 비워진다
+    int bulkImport(Iterable<Member> members);
+    int bulkImport(Iterable<Member> members, int batchSize);
+
+    // 벌크 update 후 Member 2차 캐시 리전을 비운다
+    int bulkAgePlus(int age);
+
+    // JpaRepository 의 배치 삭제를 대체: 삭제 이벤트가 없으므로 삭제 후 팀 회원 수를 다시 센다
+    void deleteAllInBatch();
+    void deleteAllInBatch(Iterable<Member> members);
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    Page<Member> findPage(Pageable pageable, CountMode countMode);
+
+    // findPage 와 같은 페이징/카운트, 엔티티 없이 팀 이름까지 DTO 로 바로 조회 (팀 없는 회원 포함)
+    Page<MemberDto> findMemberDtoPage(Pageable pageable, CountMode countMode);
+
+    // 조건 조합(어떤 조건이 있는지)마다 쿼리를 한 번만 만들고 재사용, id 순
+    // 조건이 하나도 없거나 pageable 이 페이징되지 않았거나 정렬이 있으면 예외 (정렬은 id 순 고정)
+    Slice<Member> search(MemberSearchCondition condition, Pageable pageable);
+
+    // username 접두사 검색 (메모리 인덱스, 없거나 준비 전이면 DB 범위 조회), username, id 순
+    List<MemberDto> searchByUsernamePrefix(String prefix, int limit);
 }
@@ -1,18 +1,386 @@
 package com.study.datajpa.repository;
 
+import com.study.datajpa.audit.CachingAuditorAware;
+import com.study.datajpa.config.CacheConfig;
+import com.study.datajpa.dto.CursorSlice;
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.dto.MemberSearchCondition;
 import com.study.datajpa.entity.Member;
+import com.study.datajpa.search.UsernameIndex;
+import com.study.datajpa.search.UsernameIndexListener;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    // 패딩 후에도 크기가 그대로인 2의 거듭제곱
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1024;
+
+    // search 조건 비트
+    private static final int USERNAME = 1;
+    private static final int AGE_GOE = 1 << 1;
+    private static final int AGE_LOE = 1 << 2;
+    private static final int TEAM_NAME = 1 << 3;
+    private static final int CREATED_FROM = 1 << 4;
+    private static final int CREATED_TO = 1 << 5;
+
     private final EntityManager em;
+    private final CachingAuditorAware auditorAware;
+    private final ObjectProvider<UsernameIndex> usernameIndex;
+    // 조건 조합 -> JPQL, 같은 문자열이므로 하이버네이트 쿼리 계획 캐시도 그대로 재사용된다
+    private final Map<Integer, String> searchQueries = new ConcurrentHashMap<>();
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m").getResultList();
     }
+
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (names.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return findByNamesIn(names);
+        }
+        // 청크 사이에 같은 이름이 중복 조회되지 않도록 먼저 중복을 제거
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(names));
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            result.addAll(findByNamesIn(distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()))));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> multiLoad(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.unwrap(Session.class).byMultipleIds(Member.class)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .withBatchSize(IN_CLAUSE_CHUNK_SIZE)
+                .multiLoad(ids);
+    }
+
+    private List<Member> findByNamesIn(Collection<String> names) {
+        return em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    @Override
+    public CursorSlice<Member> findByCursor(String cursor, int size) {
+        if (size < 1 || size == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("size must be between 1 and " + (Integer.MAX_VALUE - 1) + ": " + size);
+        }
+        TypedQuery<Member> query;
+        if (cursor == null) {
+            query = em.createQuery("select m from Member m " +
+                    "order by m.username desc, m.id desc", Member.class);
+        } else {
+            MemberCursor position = MemberCursor.decode(cursor);
+            // (username, id) < (:username, :id) 를 인덱스를 탈 수 있는 형태로 풀어 쓴다
+            query = em.createQuery("select m from Member m " +
+                            "where m.username <= :username " +
+                            "and (m.username < :username or m.id < :id) " +
+                            "order by m.username desc, m.id desc", Member.class)
+                    .setParameter("username", position.getUsername())
+                    .setParameter("id", position.getId());
+        }
+        // 다음 페이지 존재 여부 확인을 위해 하나 더 조회
+        List<Member> result = query.setMaxResults(size + 1).getResultList();
+        if (result.size() <= size) {
+            return new CursorSlice<>(result, null);
+        }
+        List<Member> content = result.subList(0, size);
+        return new CursorSlice<>(content, MemberCursor.of(content.get(size - 1)).encode());
+    }
+
+    @Override
+    @Transactional
+    public int bulkImport(Iterable<Member> members) {
+        return bulkImport(members, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    @Transactional
+    public int bulkImport(Iterable<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        }
+        // 배치 전체가 같은 auditor 로 기록된다
+        return auditorAware.withBatchAuditor(() -> {
+            int count = 0;
+            for (Member member : members) {
+                em.persist(member);
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            return count;
+        });
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlus(int age) {
+        return bulkAgePlus(em, age);
+    }
+
+    // MemberJpaRepository 와 같이 쓰는 구현
+    static int bulkAgePlus(EntityManager em, int age) {
+        // 조건부 GET 의 ETag/Last-Modified 가 바뀌도록 버전과 수정 시각도 함께 갱신
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1, " +
+                        "m.lastModifiedDate = :now where m.age >= :age")
+                .setParameter("age", age)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+        // 벌크 연산은 2차 캐시를 거치지 않으므로 캐시된 나이가 남지 않게 리전을 비운다
+        em.getEntityManagerFactory().getCache().evict(Member.class);
+        return resultCount;
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        em.createQuery("delete from Member m").executeUpdate();
+        em.createQuery("update Team t set t.memberCount = 0").executeUpdate();
+        // 벌크 삭제는 엔티티 리스너를 거치지 않으므로 username 인덱스도 직접 비운다
+        UsernameIndexListener.afterCommit(usernameIndex.getIfAvailable(), UsernameIndex::clear);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<Member> members) {
+        List<Long> ids = new ArrayList<>();
+        members.forEach(member -> ids.add(member.getId()));
+        deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        List<Long> list = new ArrayList<>();
+        ids.forEach(list::add);
+        if (list.isEmpty()) {
+            return;
+        }
+        // 삭제 이벤트가 없으므로 지워지는 회원의 팀은 지운 뒤 다시 세고, username 인덱스에서는 커밋 후 뺀다
+        Set<Long> teamIds = new HashSet<>();
+        List<Object[]> deleted = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = list.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, list.size()));
+            List<Object[]> rows = em.createQuery("select m.id, m.username, t.id from Member m " +
+                            "left join m.team t where m.id in :ids", Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                teamIds.add((Long) row[2]);
+            }
+            deleted.addAll(rows);
+            em.createQuery("delete from Member m where m.id in :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        // 팀이 없는 회원
+        teamIds.remove(null);
+        if (!teamIds.isEmpty()) {
+            em.createQuery("update Team t set t.memberCount = " +
+                            "(select count(m) from Member m where m.team = t) where t.id in :teamIds")
+                    .setParameter("teamIds", teamIds)
+                    .executeUpdate();
+        }
+        UsernameIndexListener.afterCommit(usernameIndex.getIfAvailable(), index -> {
+            for (Object[] row : deleted) {
+                index.remove((String) row[1], (Long) row[0]);
+            }
+        });
+    }
+
+    @Override
+    public Page<Member> findPage(Pageable pageable, CountMode countMode) {
+        String jpql = QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m");
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // 첫 페이지가 다 안 차거나 마지막 페이지면 count 쿼리를 실행하지 않는다
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(countMode));
+    }
+
+    @Override
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable, CountMode countMode) {
+        String jpql = QueryUtils.applySorting("select new com.study.datajpa.dto.MemberDto(m.id, m.username, t.name) " +
+                "from Member m left join m.team t", pageable.getSort(), "m");
+        TypedQuery<MemberDto> query = em.createQuery(jpql, MemberDto.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(countMode));
+    }
+
+    @Override
+    public Slice<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        int shape = shape(condition);
+        // 조건이 하나도 없거나 페이지 크기가 없으면 전체 테이블을 읽게 되므로 받지 않는다
+        if (shape == 0) {
+            throw new IllegalArgumentException("search condition must have at least one predicate");
+        }
+        if (pageable.isUnpaged()) {
+            throw new IllegalArgumentException("search requires a paged pageable");
+        }
+        if (pageable.getSort().isSorted()) {
+            throw new IllegalArgumentException("search is always ordered by id: " + pageable.getSort());
+        }
+        TypedQuery<Member> query = em.createQuery(searchQueries.computeIfAbsent(shape, MemberRepositoryImpl::searchQuery), Member.class);
+        if ((shape & USERNAME) != 0) {
+            query.setParameter("username", condition.getUsername());
+        }
+        if ((shape & AGE_GOE) != 0) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if ((shape & AGE_LOE) != 0) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+        if ((shape & CREATED_FROM) != 0) {
+            query.setParameter("createdFrom", condition.getCreatedFrom());
+        }
+        if ((shape & CREATED_TO) != 0) {
+            query.setParameter("createdTo", condition.getCreatedTo());
+        }
+        // 다음 Slice 존재 여부 확인을 위해 하나 더 조회
+        List<Member> result = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = result.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? result.subList(0, pageable.getPageSize()) : result, pageable, hasNext);
+    }
+
+    private static int shape(MemberSearchCondition condition) {
+        int shape = 0;
+        if (condition.getUsername() != null) {
+            shape |= USERNAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        if (condition.getTeamName() != null) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getCreatedFrom() != null) {
+            shape |= CREATED_FROM;
+        }
+        if (condition.getCreatedTo() != null) {
+            shape |= CREATED_TO;
+        }
+        return shape;
+    }
+
+    // 조건 조합별로 한 번만 실행: 있는 조건만 이름 있는 파라미터로 붙인 JPQL
+    private static String searchQuery(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if ((shape & TEAM_NAME) != 0) {
+            jpql.append(" join m.team t");
+        }
+        List<String> predicates = new ArrayList<>();
+        if ((shape & USERNAME) != 0) {
+            predicates.add("m.username = :username");
+        }
+        if ((shape & AGE_GOE) != 0) {
+            predicates.add("m.age >= :ageGoe");
+        }
+        if ((shape & AGE_LOE) != 0) {
+            predicates.add("m.age <= :ageLoe");
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            predicates.add("t.name = :teamName");
+        }
+        if ((shape & CREATED_FROM) != 0) {
+            predicates.add("m.createdDate >= :createdFrom");
+        }
+        if ((shape & CREATED_TO) != 0) {
+            predicates.add("m.createdDate < :createdTo");
+        }
+        return jpql.append(" where ").append(String.join(" and ", predicates))
+                .append(" order by m.id").toString();
+    }
+
+    @Override
+    public List<MemberDto> searchByUsernamePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        UsernameIndex index = usernameIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return index.search(prefix, limit);
+        }
+        // like 'prefix%' 와 같은 범위 조건 (파라미터여도 username 인덱스를 탄다)
+        List<Object[]> rows = em.createQuery("select m.id, m.username from Member m " +
+                        "where m.username >= :prefix and m.username < :end " +
+                        "order by m.username, m.id", Object[].class)
+                .setParameter("prefix", prefix)
+                .setParameter("end", prefix + Character.MAX_VALUE)
+                .setMaxResults(limit)
+                .getResultList();
+        List<MemberDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new MemberDto((Long) row[0], (String) row[1], null));
+        }
+        return result;
+    }
+
+    private long count(CountMode countMode) {
+        if (countMode == CountMode.APPROXIMATE) {
+            // 집계라서 테이블을 못 찾아도(식별자를 소문자로 저장하는 DB 등) 예외 없이 null
+            Number estimate = (Number) em.createNativeQuery("select max(row_count_estimate) " +
+                            "from information_schema.tables where table_name = 'MEMBER'")
+                    .getSingleResult();
+            if (estimate != null) {
+                return estimate.longValue();
+            }
+            // 통계가 없으면 CACHED 와 같이 캐시된 정확한 값 사용
+            countMode = CountMode.CACHED;
+        }
+        TypedQuery<Long> countQuery = em.createQuery("select count(m) from Member m", Long.class);
+        if (countMode == CountMode.CACHED) {
+            countQuery.setHint("org.hibernate.cacheable", true)
+                    .setHint("org.hibernate.cacheRegion", CacheConfig.COUNT_REGION);
+        }
+        return countQuery.getSingleResult();
+    }
 }
@@ -0,0 +1,11 @@
+package com.study.datajpa.repository;
+
+import java.time.LocalDateTime;
+
+// 조건부 GET 용: 엔티티를 로딩하지 않고 버전과 수정 시각만 조회
+public interface MemberVersion {
+
+    Long getVersion();
+
+    LocalDateTime getLastModifiedDate();
+}
@@ -0,0 +1,17 @@
+package com.study.datajpa.repository;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * 식별자 순 키셋 스크롤 (모든 리포지토리 공통, 구현은 ScrollableJpaRepository).
+ * afterId 로 직전 Slice 의 마지막 id 를 넘기면 그 다음 size 건을 돌려준다. count 쿼리와 OFFSET 이 없다.
+ * 보장되는 것은 스크롤을 시작할 때 이미 커밋돼 있던 행(도중에 지워지지 않은)이 id 순으로 한 번씩 나온다는 것뿐이다.
+ * 도중에 커밋된 행은 id 할당 순서와 커밋 순서가 다를 수 있어서, 이미 지나간 위치보다 작은 id 로 늦게 커밋되면 빠진다.
+ */
+@NoRepositoryBean
+public interface ScrollRepository<T, ID> {
+
+    Slice<T> scroll(Specification<T> spec, ID afterId, int size);
+}
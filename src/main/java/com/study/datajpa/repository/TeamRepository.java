@@ -3,6 +3,6 @@ package com.study.datajpa.repository;
 import com.study.datajpa.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+public interface TeamRepository extends JpaRepository<Team, Long>, ScrollRepository<Team, Long> {
 
 }
@@ -0,0 +1,174 @@
+package com.study.datajpa.repository.support;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프로젝션 인터페이스의 @Value SpEL 을 한 번만 파싱해서 getter 호출 체인으로 바꿔 둔 것.
+ * target.a.b, 리터럴, + 연결만 지원하고 나머지 식은 기존 SpEL 평가로 넘긴다.
+ */
+class CompiledProjection {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private final Set<Method> valueMethods;
+    private final Map<Method, Accessor> accessors;
+
+    private CompiledProjection(Set<Method> valueMethods, Map<Method, Accessor> accessors) {
+        this.valueMethods = valueMethods;
+        this.accessors = accessors;
+    }
+
+    static CompiledProjection compile(Class<?> projectionType) {
+        Set<Method> valueMethods = new HashSet<>();
+        Map<Method, Accessor> accessors = new HashMap<>();
+
+        for (Method method : projectionType.getMethods()) {
+            Value value = method.getAnnotation(Value.class);
+            if (value == null) {
+                continue;
+            }
+            valueMethods.add(method);
+            Expression expression = PARSER.parseExpression(value.value(), ParserContext.TEMPLATE_EXPRESSION);
+            Accessor accessor = expression instanceof SpelExpression
+                    ? compileNode(((SpelExpression) expression).getAST())
+                    : null;
+            if (accessor != null) {
+                accessors.put(method, accessor);
+            }
+        }
+        return new CompiledProjection(valueMethods, accessors);
+    }
+
+    boolean hasValueMethods() {
+        return !valueMethods.isEmpty();
+    }
+
+    boolean isValueMethod(Method method) {
+        return valueMethods.contains(method);
+    }
+
+    Accessor accessorFor(Method method) {
+        return accessors.get(method);
+    }
+
+    private static Accessor compileNode(SpelNode node) {
+        if (node instanceof Literal) {
+            Object literal = ((Literal) node).getLiteralValue().getValue();
+            return target -> literal;
+        }
+        if (node instanceof OpPlus && node.getChildCount() == 2) {
+            Accessor left = compileNode(node.getChild(0));
+            Accessor right = compileNode(node.getChild(1));
+            if (left == null || right == null) {
+                return null;
+            }
+            return target -> concat(left.getValue(target), right.getValue(target));
+        }
+        if (node instanceof CompoundExpression) {
+            return compilePropertyPath(node);
+        }
+        return null;
+    }
+
+    // target.username, target.team.name 형태만 지원
+    private static Accessor compilePropertyPath(SpelNode node) {
+        SpelNode first = node.getChild(0);
+        if (!(first instanceof PropertyOrFieldReference)
+                || !"target".equals(((PropertyOrFieldReference) first).getName())) {
+            return null;
+        }
+        PropertyStep[] steps = new PropertyStep[node.getChildCount() - 1];
+        for (int i = 1; i < node.getChildCount(); i++) {
+            SpelNode child = node.getChild(i);
+            if (!(child instanceof PropertyOrFieldReference)) {
+                return null;
+            }
+            PropertyOrFieldReference reference = (PropertyOrFieldReference) child;
+            steps[i - 1] = new PropertyStep(reference.getName(), reference.isNullSafe());
+        }
+        return target -> {
+            Object current = target;
+            for (PropertyStep step : steps) {
+                if (current == null) {
+                    if (step.nullSafe) {
+                        return null;
+                    }
+                    throw new SpelEvaluationException(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE_ON_NULL, step.name);
+                }
+                current = step.read(current);
+            }
+            return current;
+        };
+    }
+
+    // SpEL OpPlus: 한쪽이라도 문자열이면 문자열 연결
+    private static Object concat(Object left, Object right) {
+        if (left instanceof String || right instanceof String) {
+            return String.valueOf(left) + right;
+        }
+        throw NotPrecompiledException.INSTANCE;
+    }
+
+    // 숫자 덧셈 등 미리 컴파일하지 않은 연산을 만나면 SpEL 평가로 넘기기 위한 신호
+    static class NotPrecompiledException extends RuntimeException {
+        static final NotPrecompiledException INSTANCE = new NotPrecompiledException();
+
+        private NotPrecompiledException() {
+            super(null, null, false, false);
+        }
+    }
+
+    interface Accessor {
+        Object getValue(Object target);
+    }
+
+    private static class PropertyStep {
+        private final String name;
+        private final boolean nullSafe;
+        private final Map<Class<?>, Method> getters = new ConcurrentHashMap<>();
+
+        PropertyStep(String name, boolean nullSafe) {
+            this.name = name;
+            this.nullSafe = nullSafe;
+        }
+
+        Object read(Object source) {
+            if (source instanceof Map) {
+                return ((Map<?, ?>) source).get(name);
+            }
+            Method getter = getters.computeIfAbsent(source.getClass(), this::findGetter);
+            return ReflectionUtils.invokeMethod(getter, source);
+        }
+
+        private Method findGetter(Class<?> type) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                throw new SpelEvaluationException(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE, name, type.getName());
+            }
+            Method getter = descriptor.getReadMethod();
+            ReflectionUtils.makeAccessible(getter);
+            return getter;
+        }
+    }
+}
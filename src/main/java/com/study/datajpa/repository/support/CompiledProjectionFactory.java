@@ -0,0 +1,69 @@
+package com.study.datajpa.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 오픈 프로젝션의 @Value 식을 프로젝션 타입별로 한 번만 컴파일해서 캐시하는 ProjectionFactory.
+ * 행마다 SpEL 을 파싱/평가하는 대신 미리 만든 getter 체인을 호출한다.
+ */
+public class CompiledProjectionFactory extends SpelAwareProxyProjectionFactory {
+
+    private final Map<Class<?>, CompiledProjection> compiledProjections = new ConcurrentHashMap<>();
+
+    @Override
+    protected MethodInterceptor postProcessAccessorInterceptor(MethodInterceptor interceptor, Object source,
+                                                               Class<?> projectionType) {
+        CompiledProjection compiled = compiledProjections.computeIfAbsent(projectionType, CompiledProjection::compile);
+        if (!compiled.hasValueMethods()) {
+            return interceptor;
+        }
+        Supplier<MethodInterceptor> fallback =
+                () -> super.postProcessAccessorInterceptor(interceptor, source, projectionType);
+        return new CompiledAccessorMethodInterceptor(compiled, source, interceptor, fallback);
+    }
+
+    private static class CompiledAccessorMethodInterceptor implements MethodInterceptor {
+        private final CompiledProjection compiled;
+        private final Object target;
+        private final MethodInterceptor delegate;
+        private final Supplier<MethodInterceptor> fallbackSupplier;
+        private MethodInterceptor fallback;
+
+        CompiledAccessorMethodInterceptor(CompiledProjection compiled, Object target, MethodInterceptor delegate,
+                                          Supplier<MethodInterceptor> fallbackSupplier) {
+            this.compiled = compiled;
+            this.target = target;
+            this.delegate = delegate;
+            this.fallbackSupplier = fallbackSupplier;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!compiled.isValueMethod(invocation.getMethod())) {
+                return delegate.invoke(invocation);
+            }
+            CompiledProjection.Accessor accessor = compiled.accessorFor(invocation.getMethod());
+            if (accessor != null) {
+                try {
+                    return accessor.getValue(target);
+                } catch (CompiledProjection.NotPrecompiledException e) {
+                    // 아래 SpEL 평가로 처리
+                }
+            }
+            return fallback().invoke(invocation);
+        }
+
+        private MethodInterceptor fallback() {
+            if (fallback == null) {
+                fallback = fallbackSupplier.get();
+            }
+            return fallback;
+        }
+    }
+}
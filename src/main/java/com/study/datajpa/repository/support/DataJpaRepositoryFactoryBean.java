@@ -0,0 +1,60 @@
+package com.study.datajpa.repository.support;
+
+import com.study.datajpa.metrics.RepositoryMetrics;
+import com.study.datajpa.metrics.RepositoryMetricsInterceptor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 스프링 데이터 JPA 리포지토리 팩토리 확장 지점 (@EnableJpaRepositories 의 repositoryFactoryBeanClass).
+ */
+public class DataJpaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID> extends JpaRepositoryFactoryBean<T, S, ID> {
+
+    private RepositoryMetrics repositoryMetrics;
+
+    public DataJpaRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Autowired
+    public void setRepositoryMetrics(ObjectProvider<RepositoryMetrics> repositoryMetrics) {
+        this.repositoryMetrics = repositoryMetrics.getIfAvailable();
+    }
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        DataJpaRepositoryFactory factory = new DataJpaRepositoryFactory(entityManager);
+        // ScrollRepository 구현을 포함한 기본 구현
+        factory.setRepositoryBaseClass(ScrollableJpaRepository.class);
+        if (repositoryMetrics != null) {
+            // 트랜잭션 커밋 시점의 flush 까지 포함되도록 가장 바깥에 둔다
+            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                    proxyFactory.addAdvice(0, new RepositoryMetricsInterceptor(repositoryMetrics,
+                            repositoryInformation.getRepositoryInterface().getSimpleName())));
+        }
+        return factory;
+    }
+
+    static class DataJpaRepositoryFactory extends JpaRepositoryFactory {
+
+        DataJpaRepositoryFactory(EntityManager entityManager) {
+            super(entityManager);
+        }
+
+        @Override
+        protected ProjectionFactory getProjectionFactory(ClassLoader classLoader, BeanFactory beanFactory) {
+            CompiledProjectionFactory factory = new CompiledProjectionFactory();
+            factory.setBeanClassLoader(classLoader);
+            factory.setBeanFactory(beanFactory);
+            return factory;
+        }
+    }
+}
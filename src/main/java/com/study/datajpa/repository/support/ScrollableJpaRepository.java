@@ -0,0 +1,64 @@
+package com.study.datajpa.repository.support;
+
+import com.study.datajpa.repository.ScrollRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 리포지토리 기본 구현 (DataJpaRepositoryFactory 가 모든 리포지토리에 사용).
+ */
+@Transactional(readOnly = true)
+public class ScrollableJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements ScrollRepository<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager em;
+
+    public ScrollableJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager em) {
+        super(entityInformation, em);
+        this.entityInformation = entityInformation;
+        this.em = em;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<T> scroll(Specification<T> spec, ID afterId, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getDomainClass());
+        Root<T> root = query.from(getDomainClass());
+        Path<Comparable<Object>> id = root.get(entityInformation.getIdAttribute().getName());
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(id, (Comparable<Object>) afterId));
+        }
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(id));
+
+        // 다음 Slice 존재 여부 확인을 위해 하나 더 조회
+        List<T> result = em.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = result.size() > size;
+        List<T> content = hasNext ? result.subList(0, size) : result;
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
+}
@@ -0,0 +1,274 @@
+package com.study.datajpa.search;
+
+import com.study.datajpa.dto.MemberDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * username 접두사 검색(type-ahead)용 메모리 인덱스.
+ * base: username 을 UTF-8 로 이어 붙인 byte[] + 시작 위치 int[] + id long[] 로 된 불변 정렬 배열 (username, id 순)
+ * delta: 마지막 압축 이후의 추가/삭제 (ConcurrentSkipListMap, 삭제는 false 로 표시)
+ * 검색은 두 정렬 구간을 병합하고, delta 가 compactThreshold 를 넘으면 base 로 다시 합친다.
+ *
+ * 메모리: base 는 항목당 (UTF-8 username 길이 + 12) 바이트, 10자 username 100만 건이면 약 22MB.
+ * delta 는 항목당 100바이트 안팎이라 compactThreshold 로 크기를 제한한다. 현재 값은 estimatedBytes() 로 확인.
+ * 지연시간: 이진 탐색 O(log n) + 결과 수 만큼, 측정은 UsernameIndexBenchmark (SampleTime p0.99).
+ */
+public class UsernameIndex {
+
+    private final int compactThreshold;
+    private final ConcurrentSkipListMap<Key, Boolean> delta = new ConcurrentSkipListMap<>();
+    // 검색이 압축 전 base 와 압축 후 delta 를 섞어 보지 않도록 교체 시점만 막는다
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Base base = new Base(new byte[0], new int[]{0}, new long[0]);
+    private volatile boolean ready;
+
+    public UsernameIndex(int compactThreshold) {
+        this.compactThreshold = compactThreshold;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 전체 (id, username) 으로 base 를 새로 만든다, 그동안 들어온 delta 는 그대로 유지
+    public void rebuild(Iterator<Object[]> rows) {
+        List<Key> keys = new ArrayList<>();
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (row[1] != null) {
+                keys.add(new Key(utf8((String) row[1]), (Long) row[0]));
+            }
+        }
+        keys.sort(null);
+        Base rebuilt = Base.of(keys);
+        // 압축과 동시에 교체되지 않도록 compact() 와 같은 모니터 사용
+        synchronized (this) {
+            swapLock.writeLock().lock();
+            try {
+                base = rebuilt;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+        ready = true;
+    }
+
+    // 모든 항목을 지운다 (전체 벌크 삭제)
+    public synchronized void clear() {
+        swapLock.writeLock().lock();
+        try {
+            base = new Base(new byte[0], new int[]{0}, new long[0]);
+            delta.clear();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    public void put(String username, Long id) {
+        if (username != null) {
+            delta.put(new Key(utf8(username), id), Boolean.TRUE);
+            compactIfNeeded();
+        }
+    }
+
+    public void remove(String username, Long id) {
+        if (username != null) {
+            delta.put(new Key(utf8(username), id), Boolean.FALSE);
+            compactIfNeeded();
+        }
+    }
+
+    public List<MemberDto> search(String prefix, int limit) {
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        swapLock.readLock().lock();
+        try {
+            return search(utf8(prefix), limit);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private List<MemberDto> search(byte[] from, int limit) {
+        Base snapshot = base;
+        Iterator<Map.Entry<Key, Boolean>> changes = delta.tailMap(new Key(from, Long.MIN_VALUE)).entrySet().iterator();
+        Map.Entry<Key, Boolean> change = next(changes, from);
+        int i = snapshot.lowerBound(from);
+        List<MemberDto> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit) {
+            boolean inBase = i < snapshot.size() && snapshot.startsWith(i, from);
+            if (!inBase && change == null) {
+                break;
+            }
+            int order = !inBase ? 1 : change == null ? -1 : snapshot.key(i).compareTo(change.getKey());
+            if (order < 0) {
+                result.add(snapshot.dto(i++));
+                continue;
+            }
+            // 같은 항목이면 delta 가 우선 (삭제 표시면 base 항목도 건너뜀)
+            if (order == 0) {
+                i++;
+            }
+            if (change.getValue()) {
+                result.add(change.getKey().dto());
+            }
+            change = next(changes, from);
+        }
+        return result;
+    }
+
+    public long estimatedBytes() {
+        Base snapshot = base;
+        return snapshot.data.length + snapshot.offsets.length * 4L + snapshot.ids.length * 8L + delta.size() * 100L;
+    }
+
+    private void compactIfNeeded() {
+        if (delta.size() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    private synchronized void compact() {
+        if (delta.size() < compactThreshold) {
+            return;
+        }
+        Map<Key, Boolean> changes = new ConcurrentSkipListMap<>(delta);
+        Base current = base;
+        List<Key> keys = new ArrayList<>(current.size() + changes.size());
+        int i = 0;
+        for (Map.Entry<Key, Boolean> change : changes.entrySet()) {
+            while (i < current.size() && current.key(i).compareTo(change.getKey()) < 0) {
+                keys.add(current.key(i++));
+            }
+            if (i < current.size() && current.key(i).compareTo(change.getKey()) == 0) {
+                i++;
+            }
+            if (change.getValue()) {
+                keys.add(change.getKey());
+            }
+        }
+        while (i < current.size()) {
+            keys.add(current.key(i++));
+        }
+        Base compacted = Base.of(keys);
+        swapLock.writeLock().lock();
+        try {
+            base = compacted;
+            // 새 base 에 반영된 변경만 지운다 (그 사이 같은 키가 다시 바뀌었으면 남겨 둔다)
+            changes.forEach(delta::remove);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static Map.Entry<Key, Boolean> next(Iterator<Map.Entry<Key, Boolean>> changes, byte[] prefix) {
+        if (!changes.hasNext()) {
+            return null;
+        }
+        Map.Entry<Key, Boolean> change = changes.next();
+        return startsWith(change.getKey().username, 0, change.getKey().username.length, prefix) ? change : null;
+    }
+
+    private static boolean startsWith(byte[] data, int from, int to, byte[] prefix) {
+        return to - from >= prefix.length
+                && Arrays.equals(data, from, from + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final byte[] username;
+        private final long id;
+
+        private Key(byte[] username, long id) {
+            this.username = username;
+            this.id = id;
+        }
+
+        private MemberDto dto() {
+            return new MemberDto(id, new String(username, StandardCharsets.UTF_8), null);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int order = Arrays.compareUnsigned(username, other.username);
+            return order != 0 ? order : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Base {
+        private final byte[] data;
+        private final int[] offsets;
+        private final long[] ids;
+
+        private Base(byte[] data, int[] offsets, long[] ids) {
+            this.data = data;
+            this.offsets = offsets;
+            this.ids = ids;
+        }
+
+        private static Base of(List<Key> keys) {
+            int length = 0;
+            for (Key key : keys) {
+                length += key.username.length;
+            }
+            byte[] data = new byte[length];
+            int[] offsets = new int[keys.size() + 1];
+            long[] ids = new long[keys.size()];
+            int position = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                Key key = keys.get(i);
+                offsets[i] = position;
+                System.arraycopy(key.username, 0, data, position, key.username.length);
+                position += key.username.length;
+                ids[i] = key.id;
+            }
+            offsets[keys.size()] = position;
+            return new Base(data, offsets, ids);
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private Key key(int i) {
+            return new Key(Arrays.copyOfRange(data, offsets[i], offsets[i + 1]), ids[i]);
+        }
+
+        private MemberDto dto(int i) {
+            return new MemberDto(ids[i], new String(data, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8), null);
+        }
+
+        private boolean startsWith(int i, byte[] prefix) {
+            return UsernameIndex.startsWith(data, offsets[i], offsets[i + 1], prefix);
+        }
+
+        // prefix 이상인 첫 항목의 위치
+        private int lowerBound(byte[] prefix) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int order = Arrays.compareUnsigned(data, offsets[mid], offsets[mid + 1], prefix, 0, prefix.length);
+                if (order < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
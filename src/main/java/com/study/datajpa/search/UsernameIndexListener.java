@@ -0,0 +1,83 @@
+package com.study.datajpa.search;
+
+import com.study.datajpa.entity.Member;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.function.Consumer;
+
+/**
+ * Member 변경을 UsernameIndex 에 반영하는 엔티티 리스너 (하이버네이트가 스프링 빈 컨테이너로 생성).
+ * 롤백된 변경이 검색에 보이지 않도록 커밋 이후에 반영하고, 인덱스 빈이 없는 환경(@DataJpaTest 등)에서는 아무것도 하지 않는다.
+ * JPQL 벌크 update/delete 는 리스너를 거치지 않으므로, 회원을 벌크 삭제하는 MemberRepositoryImpl.deleteAllInBatch/
+ * deleteAllByIdInBatch 가 afterCommit 으로 직접 지운다 (username 을 바꾸는 벌크 연산은 없음).
+ */
+public class UsernameIndexListener {
+
+    private final ObjectProvider<UsernameIndex> usernameIndex;
+
+    public UsernameIndexListener(ObjectProvider<UsernameIndex> usernameIndex) {
+        this.usernameIndex = usernameIndex;
+    }
+
+    @PostLoad
+    public void loaded(Member member) {
+        member.setIndexedUsername(member.getUsername());
+    }
+
+    @PostPersist
+    public void persisted(Member member) {
+        String username = member.getUsername();
+        Long id = member.getId();
+        member.setIndexedUsername(username);
+        afterCommit(index -> index.put(username, id));
+    }
+
+    @PostUpdate
+    public void updated(Member member) {
+        String previous = member.getIndexedUsername();
+        String username = member.getUsername();
+        if (username == null ? previous == null : username.equals(previous)) {
+            return;
+        }
+        Long id = member.getId();
+        member.setIndexedUsername(username);
+        afterCommit(index -> {
+            index.remove(previous, id);
+            index.put(username, id);
+        });
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        String username = member.getIndexedUsername() != null ? member.getIndexedUsername() : member.getUsername();
+        Long id = member.getId();
+        afterCommit(index -> index.remove(username, id));
+    }
+
+    private void afterCommit(Consumer<UsernameIndex> change) {
+        afterCommit(usernameIndex.getIfAvailable(), change);
+    }
+
+    // 커밋된 뒤에 인덱스를 바꾼다, 트랜잭션 밖이면 바로 바꾸고 인덱스가 없으면 아무것도 하지 않는다
+    public static void afterCommit(UsernameIndex index, Consumer<UsernameIndex> change) {
+        if (index == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.accept(index);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.accept(index);
+            }
+        });
+    }
+}
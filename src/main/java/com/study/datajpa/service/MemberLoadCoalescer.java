@@ -0,0 +1,154 @@
+package com.study.datajpa.service;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 들어온 단건 조회를 모아서 한 번의 multiLoad(IN 쿼리)로 처리한다.
+ * 진행 중인 조회가 없으면 기다리지 않고 바로 조회한다. 다른 조회가 진행 중일 때 도착한 요청은 묶음을 열고
+ * windowMs 동안(또는 maxBatch 개가 모일 때까지) 기다렸다가 모인 id 를 대신 조회하고, 나머지 요청은 그 결과를 받는다. 엔티티는 리더 스레드의 영속성 컨텍스트에 속하므로 트랜잭션 안에서 DTO 로 바꿔서 돌려준다.
+ */
+@Service
+public class MemberLoadCoalescer {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Object lock = new Object();
+    private Batch current;
+    // 실행 중인 조회 수 (바로 조회 + 모아서 조회)
+    private int inFlight;
+
+    public MemberLoadCoalescer(MemberRepository memberRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.coalesce.window-ms:2}") long windowMillis,
+                               @Value("${datajpa.coalesce.max-batch:100}") int maxBatch) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+    }
+
+    public Optional<MemberDto> load(Long id) {
+        if (windowNanos <= 0) {
+            return loadAll(List.of(id)).get(0);
+        }
+        Batch batch = null;
+        CompletableFuture<Optional<MemberDto>> future = null;
+        boolean leader = false;
+        synchronized (lock) {
+            if (current == null && inFlight == 0) {
+                // 진행 중인 조회가 없으면 기다리지 않고 바로 조회
+                inFlight++;
+            } else {
+                leader = current == null;
+                if (leader) {
+                    current = new Batch();
+                    inFlight++;
+                }
+                batch = current;
+                future = batch.futures.computeIfAbsent(id, key -> new CompletableFuture<>());
+                if (batch.futures.size() >= maxBatch) {
+                    // 가득 찼으면 바로 닫고 대기 중인 리더를 깨운다
+                    current = null;
+                    lock.notifyAll();
+                }
+            }
+        }
+        if (batch == null) {
+            try {
+                return loadAll(List.of(id)).get(0);
+            } finally {
+                finished();
+            }
+        }
+        if (leader) {
+            try {
+                awaitWindow(batch);
+                execute(batch);
+            } finally {
+                finished();
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // ids 순서대로 조회, 없는 id 는 Optional.empty()
+    public List<Optional<MemberDto>> loadAll(List<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            List<Optional<MemberDto>> result = new ArrayList<>(ids.size());
+            for (Member member : memberRepository.multiLoad(ids)) {
+                result.add(Optional.ofNullable(member).map(MemberLoadCoalescer::toDto));
+            }
+            return result;
+        });
+    }
+
+    private void finished() {
+        synchronized (lock) {
+            inFlight--;
+        }
+    }
+
+    private void awaitWindow(Batch batch) {
+        synchronized (lock) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (current == batch && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            if (current == batch) {
+                current = null;
+            }
+        }
+    }
+
+    private void execute(Batch batch) {
+        List<Long> ids = new ArrayList<>(batch.futures.keySet());
+        try {
+            List<Optional<MemberDto>> result = loadAll(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                batch.futures.get(ids.get(i)).complete(result.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static MemberDto toDto(Member member) {
+        return new MemberDto(member.getId(), member.getUsername(),
+                member.getTeam() == null ? null : member.getTeam().getName(),
+                member.getVersion(), member.getLastModifiedDate());
+    }
+
+    private static class Batch {
+        // 같은 id 요청은 하나의 결과를 공유
+        final Map<Long, CompletableFuture<Optional<MemberDto>>> futures = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,98 @@
+package com.study.datajpa.service;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 회원 한 명을 읽어서 수정하는 쓰기 경로.
+ * 락 방식은 datajpa.lock.mode 가 기본이고, datajpa.lock.operations.{operation} 으로 작업별로 바꿀 수 있다.
+ * 낙관적 모드는 충돌 시 지수 백오프(+지터) 후 새 트랜잭션에서 최대 maxAttempts 번까지 다시 시도한다.
+ */
+@Service
+public class MemberWriteService {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+    private final WriteLockMode defaultMode;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public MemberWriteService(MemberRepository memberRepository,
+                              PlatformTransactionManager transactionManager,
+                              Environment environment,
+                              @Value("${datajpa.lock.mode:optimistic}") String defaultMode,
+                              @Value("${datajpa.lock.max-attempts:10}") int maxAttempts,
+                              @Value("${datajpa.lock.backoff-ms:2}") long backoffMillis) {
+        this.memberRepository = memberRepository;
+        // 재시도마다 영속성 컨텍스트를 새로 시작해야 최신 version 을 읽는다
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.environment = environment;
+        this.defaultMode = parse(defaultMode);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public Member changeAge(Long id, int age) {
+        return update("change-age", id, member -> member.setAge(age));
+    }
+
+    public Member changeUsername(Long id, String username) {
+        return update("change-username", id, member -> member.setUsername(username));
+    }
+
+    public Member update(String operation, Long id, Consumer<Member> change) {
+        String mode = environment.getProperty("datajpa.lock.operations." + operation);
+        return update(id, mode == null ? defaultMode : parse(mode), change);
+    }
+
+    public Member update(Long id, WriteLockMode mode, Consumer<Member> change) {
+        if (mode == WriteLockMode.PESSIMISTIC) {
+            return transactionTemplate.execute(status -> {
+                Member member = memberRepository.findLockById(id).orElseThrow();
+                change.accept(member);
+                return member;
+            });
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Member member = memberRepository.findById(id).orElseThrow();
+                    change.accept(member);
+                    return member;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        long max = backoffMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(max + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static WriteLockMode parse(String mode) {
+        return WriteLockMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+}
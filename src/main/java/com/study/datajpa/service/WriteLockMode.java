@@ -0,0 +1,11 @@
+package com.study.datajpa.service;
+
+/**
+ * 회원 수정 시 동시성 제어 방식.
+ */
+public enum WriteLockMode {
+    // select ... for update 로 행을 잠그고 수정 (동시 수정은 커넥션을 잡은 채 대기)
+    PESSIMISTIC,
+    // @Version 으로 커밋 시점에 충돌을 감지하고, 충돌하면 새 트랜잭션으로 다시 시도
+    OPTIMISTIC
+}
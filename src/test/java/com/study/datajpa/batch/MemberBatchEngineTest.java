@@ -0,0 +1,96 @@
+package com.study.datajpa.batch;
+
+import com.study.datajpa.entity.BatchCheckpoint;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.BatchCheckpointRepository;
+import com.study.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberBatchEngineTest {
+
+    @Autowired
+    MemberBatchEngine batchEngine;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    BatchCheckpointRepository checkpointRepository;
+
+    // 배치는 테이블 전체를 처리하므로 다른 테스트가 커밋한 회원이 없도록 앞뒤로 비운다
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        checkpointRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void resumeFromCheckpoint() throws Exception{
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            members.add(new Member("batch" + i, 10));
+        }
+        memberRepository.saveAll(members);
+        Long failingId = memberRepository.findByUsername("batch57").get(0).getId();
+        Consumer<Member> increment = member -> member.setAge(member.getAge() + 1);
+
+        // when: 57 번째 회원에서 실패하면 그 청크만 롤백된다
+        assertThatThrownBy(() -> batchEngine.run("ageUp", 10, 1, member -> {
+            if (member.getId().equals(failingId)) {
+                throw new IllegalStateException("boom");
+            }
+            increment.accept(member);
+        })).isInstanceOf(IllegalStateException.class);
+
+        BatchCheckpoint checkpoint = checkpointRepository.findById("ageUp:0").get();
+        assertThat(checkpoint.getProcessed()).isEqualTo(50);
+        assertThat(checkpoint.isCompleted()).isFalse();
+
+        // 재시작하면 커밋된 청크 다음부터 처리
+        BatchResult result = batchEngine.run("ageUp", 10, 1, increment);
+
+        // then
+        assertThat(result.getProcessed()).isEqualTo(45);
+        assertThat(memberRepository.findAll()).allMatch(member -> member.getAge() == 11);
+        assertThat(checkpointRepository.findById("ageUp:0").get().isCompleted()).isTrue();
+
+        // 끝난 작업은 다시 실행해도 처리하지 않는다
+        assertThat(batchEngine.run("ageUp", 10, 1, increment).getProcessed()).isZero();
+    }
+
+    @Test
+    void partitions() throws Exception{
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            members.add(new Member("batch" + i, 20));
+        }
+        memberRepository.saveAll(members);
+
+        // when
+        BatchResult result = batchEngine.run("partitioned", 16, 4, member -> member.setAge(member.getAge() + 1));
+
+        // then
+        assertThat(result.getProcessed()).isEqualTo(200);
+        assertThat(checkpointRepository.findByIdStartingWithOrderByIdAsc("partitioned:"))
+                .hasSize(4)
+                .allMatch(BatchCheckpoint::isCompleted);
+        assertThat(memberRepository.findAll()).allMatch(member -> member.getAge() == 21);
+
+        // reset 후에는 처음부터 다시 처리
+        batchEngine.reset("partitioned");
+        assertThat(batchEngine.run("partitioned", 16, 4, member -> { }).getProcessed()).isEqualTo(200);
+    }
+}
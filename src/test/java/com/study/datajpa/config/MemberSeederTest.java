@@ -0,0 +1,49 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"datajpa.seed.enabled=true", "datajpa.seed.count=250", "datajpa.seed.batch-size=100"})
+@AutoConfigureMockMvc
+class MemberSeederTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ApplicationAvailability availability;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    StartupPhaseRecorder startupPhaseRecorder;
+
+    @Test
+    void readyAfterSeeding() throws Exception{
+        // when: 입력이 끝나서 ACCEPTING_TRAFFIC 이 될 때까지 대기
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // then
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        assertThat(memberRepository.count()).isEqualTo(250);
+        assertThat(startupPhaseRecorder.report()).containsKeys(
+                StartupPhaseRecorder.ENTITY_MANAGER_FACTORY,
+                StartupPhaseRecorder.REPOSITORIES,
+                StartupPhaseRecorder.SEEDING);
+    }
+}
@@ -0,0 +1,75 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.DataJpaApplication;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * warm-up 유무에 따라 기동 직후 첫 GET /members 의 쿼리 계획 캐시 미스를 비교한다.
+ * warm-up 을 하면 첫 요청의 JPQL 은 모두 계획 캐시에 있어야 한다. 지연시간은 환경마다 달라서 로그로만 남긴다.
+ */
+class QueryWarmupTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryWarmupTest.class);
+
+    @Test
+    void firstRequestUsesWarmedQueryPlans() throws Exception{
+        FirstRequest cold;
+        FirstRequest warm;
+        // when
+        try (ConfigurableApplicationContext context = start(false)) {
+            cold = firstRequest(context);
+        }
+        try (ConfigurableApplicationContext context = start(true)) {
+            warm = firstRequest(context);
+            QueryWarmupRunner runner = context.getBean(QueryWarmupRunner.class);
+            assertThat(runner.getTimings()).containsKeys("findByUsername", "findByNativeQuery", "findPage", "findMemberDtoPage");
+        }
+        log.info("first /members cold = {}us ({} plan cache misses), warm = {}us ({} plan cache misses)",
+                cold.micros, cold.planCacheMisses, warm.micros, warm.planCacheMisses);
+
+        // then
+        assertThat(cold.planCacheMisses).isGreaterThan(0);
+        assertThat(warm.planCacheMisses).isZero();
+    }
+
+    private ConfigurableApplicationContext start(boolean warmup) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties("server.port=0", "datajpa.warmup.enabled=" + warmup)
+                .run();
+    }
+
+    private FirstRequest firstRequest(ConfigurableApplicationContext context) {
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        long misses = statistics.getQueryPlanCacheMissCount();
+        long start = System.nanoTime();
+        ResponseEntity<String> response = new RestTemplate()
+                .getForEntity("http://localhost:" + port + "/members", String.class);
+        long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return new FirstRequest(elapsed, statistics.getQueryPlanCacheMissCount() - misses);
+    }
+
+    private static class FirstRequest {
+        final long micros;
+        final long planCacheMisses;
+
+        FirstRequest(long micros, long planCacheMisses) {
+            this.micros = micros;
+            this.planCacheMisses = planCacheMisses;
+        }
+    }
+}
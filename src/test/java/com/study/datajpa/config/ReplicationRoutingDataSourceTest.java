@@ -0,0 +1,136 @@
+package com.study.datajpa.config;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"datajpa.datasource.replica.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=7"})
+@AutoConfigureMockMvc
+@Import(ReplicationRoutingDataSourceTest.RoutingController.class)
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    HikariDataSource primaryDataSource;
+    @Autowired
+    HikariDataSource replicaDataSource;
+    @Autowired
+    MockMvc mockMvc;
+
+    @AfterEach
+    void clear() {
+        ReplicationRoutingDataSource.clearWriteMark();
+        transactionTemplate.setReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() throws Exception{
+        // given
+        ReplicationRoutingDataSource.clearWriteMark();
+        transactionTemplate.setReadOnly(true);
+        // when
+        int replicaActive = transactionTemplate.execute(status -> {
+            em.createQuery("select count(m) from Member m").getSingleResult();
+            return replicaDataSource.getHikariPoolMXBean().getActiveConnections();
+        });
+        // then
+        assertThat(replicaActive).isEqualTo(1);
+    }
+
+    @Test
+    void readYourWrites() throws Exception{
+        // given
+        memberRepository.save(new Member("routing1", 10));
+        transactionTemplate.setReadOnly(true);
+        // when: 쓰기 직후의 읽기는 lag tolerance 안이므로 primary 에서 읽는다
+        int primaryActive = transactionTemplate.execute(status -> {
+            memberRepository.findByUsername("routing1");
+            return primaryDataSource.getHikariPoolMXBean().getActiveConnections();
+        });
+        // then
+        assertThat(primaryActive).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionWithoutWritesKeepsReplica() throws Exception{
+        // given: 쓰기 없이 끝난 읽기/쓰기 트랜잭션
+        ReplicationRoutingDataSource.clearWriteMark();
+        transactionTemplate.execute(status -> memberRepository.findByUsername("routing2"));
+        transactionTemplate.setReadOnly(true);
+        // when
+        int replicaActive = transactionTemplate.execute(status -> {
+            memberRepository.findByUsername("routing2");
+            return replicaDataSource.getHikariPoolMXBean().getActiveConnections();
+        });
+        // then
+        assertThat(replicaActive).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionInOpenEntityManagerInViewUsesReplica() throws Exception{
+        // given
+        ReplicationRoutingDataSource.clearWriteMark();
+        // when & then: 같은 요청의 앞선 읽기/쓰기 트랜잭션이 잡은 primary 커넥션을 이어 쓰지 않는다
+        mockMvc.perform(get("/test/routing"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+    }
+
+    @Test
+    void primaryPoolBindsHikariProperties() throws Exception{
+        assertThat(primaryDataSource.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(primaryDataSource.getPoolName()).isEqualTo("primary-pool");
+    }
+
+    // 요청 안에서 읽기/쓰기 트랜잭션 다음에 읽기 전용 트랜잭션을 실행하고, 그때의 replica 활성 커넥션 수를 돌려준다
+    @RestController
+    static class RoutingController {
+
+        private final MemberRepository memberRepository;
+        private final HikariDataSource replicaDataSource;
+        private final TransactionTemplate readWrite;
+        private final TransactionTemplate readOnly;
+
+        RoutingController(MemberRepository memberRepository, HikariDataSource replicaDataSource,
+                          PlatformTransactionManager transactionManager) {
+            this.memberRepository = memberRepository;
+            this.replicaDataSource = replicaDataSource;
+            this.readWrite = new TransactionTemplate(transactionManager);
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+        }
+
+        @GetMapping("/test/routing")
+        public int routing() {
+            readWrite.execute(status -> memberRepository.findByUsername("routing3"));
+            return readOnly.execute(status -> {
+                memberRepository.findByUsername("routing3");
+                return replicaDataSource.getHikariPoolMXBean().getActiveConnections();
+            });
+        }
+    }
+}
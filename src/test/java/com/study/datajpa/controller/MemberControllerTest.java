@@ -0,0 +1,139 @@
+package com.study.datajpa.controller;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.entity.Team;
+import com.study.datajpa.repository.MemberRepository;
+import com.study.datajpa.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    void conditionalGetMember() throws Exception{
+        // given
+        Member member = memberRepository.saveAndFlush(new Member("member1", 10));
+        String etag = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("member1"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when & then: 바뀌지 않았으면 본문 없이 304 (도메인 클래스 컨버터 경로도 같은 ETag)
+        mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/members2/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 변경되면 버전이 올라가서 새 ETag 로 200
+        member.setUsername("member2");
+        em.flush();
+        String changed = mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string("member2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void conditionalGetList() throws Exception{
+        // given
+        for (int i = 0; i < 12; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        em.flush();
+        String etag = mockMvc.perform(get("/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when & then
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // 다른 페이지는 다른 ETag
+        mockMvc.perform(get("/members").param("page", "0").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        // 페이지에 있는 회원이 바뀌면 304 가 아니다
+        memberRepository.findByUsername("member3").get(0).setUsername("member3x");
+        em.flush();
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void multiGet() throws Exception{
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        Member member1 = memberRepository.save(new Member("member1", 10, team));
+        Member member2 = memberRepository.save(new Member("member2", 10));
+        em.flush();
+        em.clear();
+
+        // when & then: 요청 순서대로, 없는 id 는 missing
+        mockMvc.perform(get("/members").param("ids", member2.getId() + ",-1," + member1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members[*].username").value(contains("member2", "member1")))
+                .andExpect(jsonPath("$.members[1].teamName").value("teamA"))
+                .andExpect(jsonPath("$.missing").value(contains(-1)));
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception{
+        // when & then
+        mockMvc.perform(get("/members/cursor").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(status().reason("invalid cursor"));
+    }
+
+    @Test
+    void cursorSizeOutOfRangeIsBadRequest() throws Exception{
+        // when & then
+        for (String size : new String[]{"0", "-1", "-2", "101", String.valueOf(Integer.MAX_VALUE)}) {
+            mockMvc.perform(get("/members/cursor").param("size", size))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(status().reason("size must be between 1 and 100"));
+        }
+        mockMvc.perform(get("/members/cursor").param("size", "100"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchRejectsNonPositiveLimit() throws Exception{
+        // when & then
+        mockMvc.perform(get("/members/search").param("prefix", "member").param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/search").param("prefix", "member").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/search").param("prefix", "member").param("limit", "1000"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,83 @@
+package com.study.datajpa.entity;
+
+import com.study.datajpa.repository.MemberRepository;
+import com.study.datajpa.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TeamMemberCountTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    List<Long> memberIds = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+        teamRepository.deleteAllByIdInBatch(teamIds);
+    }
+
+    @Test
+    void concurrentMovesDoNotConflict() throws Exception{
+        // given
+        Team teamA = teamRepository.save(new Team("countA"));
+        Team teamB = teamRepository.save(new Team("countB"));
+        teamIds.add(teamA.getId());
+        teamIds.add(teamB.getId());
+        for (int i = 0; i < 16; i++) {
+            memberIds.add(memberRepository.save(new Member("count" + i, i, teamA)).getId());
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // when: 재시도 없이 동시에 같은 두 팀 사이에서 이동
+        ExecutorService executor = Executors.newFixedThreadPool(memberIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Long memberId : memberIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> {
+                        Member member = memberRepository.findById(memberId).get();
+                        member.changeTeam(teamRepository.getReferenceById(teamB.getId()));
+                        return member;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        Team findA = teamRepository.findById(teamA.getId()).get();
+        Team findB = teamRepository.findById(teamB.getId()).get();
+        assertThat(findA.getMemberCount()).isEqualTo(0);
+        assertThat(findB.getMemberCount()).isEqualTo(16);
+        assertThat(findA.getVersion()).isEqualTo(teamA.getVersion());
+        assertThat(findB.getVersion()).isEqualTo(teamB.getVersion());
+    }
+}
@@ -0,0 +1,68 @@
+package com.study.datajpa.metrics;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberJpaRepository;
+import com.study.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RepositoryMetricsTest {
+
+    @Autowired
+    RepositoryMetrics repositoryMetrics;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    // 커밋된 테스트 데이터는 끝나면 지운다
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void recordRepositoryInvocations() throws Exception{
+        // given
+        created.add(memberRepository.save(new Member("metrics1", 10)).getId());
+        // when
+        List<Member> result = memberRepository.findByUsername("metrics1");
+        memberJpaRepository.count();
+        // then
+        RepositoryMethodStats findByUsername = find("MemberRepository.findByUsername");
+        assertThat(findByUsername.getInvocations()).isGreaterThanOrEqualTo(1);
+        assertThat(findByUsername.getStatements()).isGreaterThanOrEqualTo(1);
+        assertThat(findByUsername.getRows()).isGreaterThanOrEqualTo(result.size());
+        assertThat(find("MemberJpaRepository.count").getInvocations()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void histogramPercentile() throws Exception{
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertThat(histogram.count()).isEqualTo(1000);
+        // 구간 상한값을 돌려주므로 실제 값 이상, 상대 오차 1/16 이내
+        assertThat(histogram.percentile(0.5)).isBetween(500_000L, 500_000L + 500_000L / 16);
+        assertThat(histogram.percentile(0.99)).isBetween(990_000L, 990_000L + 990_000L / 16);
+    }
+
+    private RepositoryMethodStats find(String method) {
+        return repositoryMetrics.snapshot().stream()
+                .filter(stats -> stats.getMethod().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.study.datajpa.repository;
+
+import com.study.datajpa.metrics.SqlStatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 실행되는 SQL 을 현재 스레드에 모아 두는 테스트용 인스펙터 (기존 지표 수집은 그대로)
+public class CapturingStatementInspector extends SqlStatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        List<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+        return captured;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return super.inspect(sql);
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.datajpa.repository;
+
+import com.study.datajpa.entity.Member;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 식별자를 소문자로 저장하는 DB 에서는 information_schema 에서 MEMBER 를 찾지 못하므로
+ * APPROXIMATE 가 캐시된 정확한 count 로 대신하는지 확인한다.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:count-fallback;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MemberApproximateCountFallbackTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    void approximateCountFallsBackToCount() throws Exception{
+        // given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long counts = statistics.getQueryStatistics("select count(m) from Member m").getExecutionCount();
+        Number estimate = (Number) em.createNativeQuery("select max(row_count_estimate) " +
+                "from information_schema.tables where table_name = 'MEMBER'").getSingleResult();
+
+        // when
+        Page<Member> page = memberRepository.findPage(PageRequest.of(0, 3), CountMode.APPROXIMATE);
+
+        // then
+        assertThat(estimate).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(statistics.getQueryStatistics("select count(m) from Member m").getExecutionCount()).isEqualTo(counts + 1);
+    }
+}
@@ -120,6 +120,27 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(7);
     }
 
+    @Test
+    void keysetPaging() throws Exception{
+        // given
+        memberJpaRepository.save(new Member("keyset1", 1000));
+        memberJpaRepository.save(new Member("keyset2", 1000));
+        memberJpaRepository.save(new Member("keyset3", 1000));
+        memberJpaRepository.save(new Member("keyset4", 1000));
+        memberJpaRepository.save(new Member("keyset5", 1000));
+
+        int age = 1000;
+        int limit = 2;
+
+        // when
+        List<Member> first = memberJpaRepository.findByPage(age, 0, limit);
+        Member lastOfFirst = first.get(first.size() - 1);
+        List<Member> second = memberJpaRepository.findByPageAfter(age, lastOfFirst.getUsername(), lastOfFirst.getId(), limit);
+        // then
+        assertThat(first).extracting("username").containsExactly("keyset5", "keyset4");
+        assertThat(second).extracting("username").containsExactly("keyset3", "keyset2");
+    }
+
     @Test
     void bulkUpdate() throws Exception{
         // given
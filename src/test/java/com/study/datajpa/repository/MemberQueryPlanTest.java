@@ -0,0 +1,134 @@
+package com.study.datajpa.repository;
+
+import com.study.datajpa.dto.MemberSearchCondition;
+import com.study.datajpa.entity.Member;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemberRepository 의 조건 조회가 만드는 SQL 을 H2 EXPLAIN 으로 확인해서 MEMBER 풀 스캔이 있으면 실패시킨다.
+ * 리포지토리에 메서드를 추가하면 아래 목록(인덱스 확인 또는 풀 스캔 허용) 중 한 곳에 등록해야 한다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.study.datajpa.repository.CapturingStatementInspector")
+class MemberQueryPlanTest {
+
+    // 조건 없이 전체를 읽는 메서드 (풀 스캔이 정상)
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "findUsernameList", "findMemberDto", "streamMemberDto", "findByAge", "findAll",
+            "findMemberByEntityGraph", "findByNativeProjection", "findMemberCustom", "findPage", "findMemberDtoPage",
+            "bulkImport", "deleteAllInBatch", "deleteAllByIdInBatch");
+
+    @Autowired
+    MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("member" + i, i % 50));
+        }
+        memberRepository.bulkImport(members);
+    }
+
+    @Test
+    void filteredQueriesUseIndex() throws Exception{
+        // given
+        String cursor = new MemberCursor("member500", 500L).encode();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByUsernameAndAgeGreaterThan", () -> memberRepository.findByUsernameAndAgeGreaterThan("member1", 0));
+        queries.put("findByUsername", () -> memberRepository.findByUsername("member1"));
+        queries.put("findUser", () -> memberRepository.findUser("member1", 1));
+        queries.put("findByNames", () -> memberRepository.findByNames(Arrays.asList("member1", "member2")));
+        queries.put("findListByUsername", () -> memberRepository.findListByUsername("member1"));
+        queries.put("findMemberByUsername", () -> memberRepository.findMemberByUsername("member1"));
+        queries.put("findOptionalByUsername", () -> memberRepository.findOptionalByUsername("member1"));
+        queries.put("findSliceByAge", () -> memberRepository.findSliceByAge(1,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username"))));
+        queries.put("findEntityGraphByUsername", () -> memberRepository.findEntityGraphByUsername("member1"));
+        queries.put("findReadOnlyByUsername", () -> memberRepository.findReadOnlyByUsername("member1"));
+        queries.put("findLockByUsername", () -> memberRepository.findLockByUsername("member1"));
+        queries.put("findLockById", () -> memberRepository.findLockById(1L));
+        queries.put("findVersionById", () -> memberRepository.findVersionById(1L));
+        queries.put("search", () -> memberRepository.search(usernameCondition("member1"), PageRequest.of(0, 10)));
+        queries.put("multiLoad", () -> memberRepository.multiLoad(Arrays.asList(3L, 1L, 2L)));
+        queries.put("findProjectionsByUsername", () -> memberRepository.findProjectionsByUsername("member1", UsernameOnly.class));
+        queries.put("findByNativeQuery", () -> memberRepository.findByNativeQuery("member1"));
+        queries.put("findByCursor", () -> memberRepository.findByCursor(cursor, 10));
+        queries.put("bulkAgePlus", () -> memberRepository.bulkAgePlus(49));
+        queries.put("scrollByAge", () -> memberRepository.scrollByAge(1, 100L, 10));
+        queries.put("searchByUsernamePrefix", () -> memberRepository.searchByUsernamePrefix("member12", 10));
+        // when
+        Map<String, List<String>> plans = new LinkedHashMap<>();
+        queries.forEach((method, query) -> {
+            em.clear();
+            CapturingStatementInspector.start();
+            try {
+                query.run();
+            } finally {
+                plans.put(method, CapturingStatementInspector.stop().stream()
+                        .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("member"))
+                        .map(this::explain)
+                        .collect(Collectors.toList()));
+            }
+        });
+        // then
+        assertThat(declaredMethods())
+                .allMatch(method -> queries.containsKey(method) || FULL_SCAN_ALLOWED.contains(method));
+        plans.forEach((method, explained) -> {
+            assertThat(explained).as(method).isNotEmpty();
+            assertThat(explained).as(method).noneMatch(plan -> plan.contains("MEMBER.tableScan"));
+        });
+    }
+
+    private static MemberSearchCondition usernameCondition(String username) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        return condition;
+    }
+
+    private String explain(String sql) {
+        // H2 는 EXPLAIN 에 for update 를 받지 않으므로 잠금 절은 빼고 실행 계획만 본다
+        String query = sql.replaceAll("(?i)\\s+for update.*$", "");
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + query);
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        });
+    }
+
+    private List<String> declaredMethods() {
+        return Stream.of(MemberRepository.class, MemberRepositoryCustom.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic())
+                .map(Method::getName)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -1,30 +1,52 @@
 package com.study.datajpa.repository;
 
+import com.study.datajpa.config.NPlusOneDetectorConfig;
+import com.study.datajpa.dto.CursorSlice;
 import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.dto.MemberSearchCondition;
 import com.study.datajpa.entity.Member;
 import com.study.datajpa.entity.Team;
+import com.study.datajpa.metrics.NPlusOneDetector;
+import com.study.datajpa.metrics.NPlusOneQueryException;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @DataJpaTest
+@Import(NPlusOneDetectorConfig.class)
 class MemberRepositoryTest {
 
     @Autowired
     MemberRepository memberRepository;
     @Autowired
     TeamRepository teamRepository;
+    @Autowired
+    NPlusOneDetector nPlusOneDetector;
     @PersistenceContext
     EntityManager em;
 
@@ -146,6 +168,29 @@ class MemberRepositoryTest {
             System.out.println("dto = " + dto);
         }
     }
+    @Test
+    void streamMemberDto() throws Exception{
+        // given
+        Team t = new Team("teamA");
+        teamRepository.save(t);
+        memberRepository.save(new Member("AAA", 10, t));
+        memberRepository.save(new Member("BBB", 20));
+        em.flush();
+        em.clear();
+
+        // when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("AAA", "BBB");
+        assertThat(result).extracting("teamName").containsExactlyInAnyOrder("teamA", null);
+        // DTO 로만 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+    }
+
     @Test
     void findByNames() throws Exception{
         Member m1 = new Member("AAA", 10);
@@ -161,6 +206,58 @@ class MemberRepositoryTest {
         }
 
     }
+
+    @Test
+    void findByNamesReusesPaddedPlan() throws Exception{
+        // given
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        memberRepository.findByNames(Arrays.asList("n1", "n2", "n3", "n4", "n5"));
+        long misses = statistics.getQueryPlanCacheMissCount();
+        // when: 6~8 개도 8 개로 패딩되어 같은 계획을 사용
+        memberRepository.findByNames(Arrays.asList("n1", "n2", "n3", "n4", "n5", "n6"));
+        memberRepository.findByNames(Arrays.asList("n1", "n2", "n3", "n4", "n5", "n6", "n7"));
+        memberRepository.findByNames(Arrays.asList("n1", "n2", "n3", "n4", "n5", "n6", "n7", "n8"));
+        // then
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void multiLoadInOrder() throws Exception{
+        // given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        Member member3 = memberRepository.save(new Member("member3", 30));
+        em.flush();
+        em.clear();
+        // 영속성 컨텍스트에 있는 회원은 다시 조회하지 않는다
+        Member loaded = memberRepository.findById(member2.getId()).get();
+
+        // when
+        List<Member> result = memberRepository.multiLoad(Arrays.asList(member3.getId(), -1L, member2.getId(), member1.getId()));
+
+        // then
+        assertThat(result).extracting(member -> member == null ? null : member.getUsername())
+                .containsExactly("member3", null, "member2", "member1");
+        assertThat(result.get(2)).isSameAs(loaded);
+    }
+
+    @Test
+    void findByNamesInChunks() throws Exception{
+        // given
+        List<Member> members = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            members.add(new Member("chunk" + i, i));
+            names.add("chunk" + i);
+        }
+        memberRepository.bulkImport(members);
+        names.add("chunk0");
+        // when
+        List<Member> result = memberRepository.findByNames(names);
+        // then
+        assertThat(result).hasSize(2500);
+        assertThat(memberRepository.findByNames(new ArrayList<>())).isEmpty();
+    }
     @Test
     void paging() throws Exception{
         // given
@@ -190,6 +287,71 @@ class MemberRepositoryTest {
        assertThat(page.isFirst()).isTrue();
        assertThat(page.hasNext()).isTrue();
     }
+    @Test
+    void pagingWithCachedCount() throws Exception{
+        // given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+        Page<Member> before = memberRepository.findPage(pageRequest, CountMode.CACHED);
+
+        // when
+        memberRepository.save(new Member("member8", 10));
+        Page<Member> after = memberRepository.findPage(pageRequest, CountMode.CACHED);
+        // 마지막 페이지는 count 쿼리 없이 건수를 계산
+        Page<Member> last = memberRepository.findPage(PageRequest.of(2, 3), CountMode.EXACT);
+
+        // then
+        assertThat(before.getTotalElements()).isEqualTo(7);
+        assertThat(after.getTotalElements()).isEqualTo(8);
+        assertThat(after.getContent()).extracting("username").containsExactly("member8", "member7", "member6");
+        assertThat(last.getContent()).hasSize(2);
+        assertThat(last.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    void pagingWithApproximateCount() throws Exception{
+        // given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        em.flush();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long counts = statistics.getQueryStatistics("select count(m) from Member m").getExecutionCount();
+        Number estimate = (Number) em.createNativeQuery("select max(row_count_estimate) " +
+                "from information_schema.tables where table_name = 'MEMBER'").getSingleResult();
+
+        // when
+        Page<Member> page = memberRepository.findPage(PageRequest.of(0, 3), CountMode.APPROXIMATE);
+
+        // then: 통계 값을 그대로 쓰고 count 쿼리는 실행하지 않는다
+        assertThat(estimate).isNotNull();
+        assertThat(page.getTotalElements()).isEqualTo(estimate.longValue());
+        assertThat(statistics.getQueryStatistics("select count(m) from Member m").getExecutionCount()).isEqualTo(counts);
+    }
+
+    @Test
+    void memberDtoPage() throws Exception{
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 10));
+        em.flush();
+        em.clear();
+
+        // when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")), CountMode.EXACT);
+
+        // then: 팀 없는 회원도 포함되고, 영속성 컨텍스트에는 아무 엔티티도 올라오지 않는다
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting("username").containsExactly("member3", "member2");
+        assertThat(page.getContent()).extracting("teamName").containsExactly(null, "teamA");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
     @Test
     void slice() throws Exception{
         // given
@@ -215,6 +377,65 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    void cursorPaging() throws Exception{
+        // given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member2", 20));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+
+        // when
+        CursorSlice<Member> first = memberRepository.findByCursor(null, 2);
+        CursorSlice<Member> second = memberRepository.findByCursor(first.getNextCursor(), 2);
+        CursorSlice<Member> last = memberRepository.findByCursor(second.getNextCursor(), 2);
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member4", "member3");
+        assertThat(second.getContent()).extracting("username").containsExactly("member2", "member2");
+        assertThat(last.getContent()).extracting("username").containsExactly("member1");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void bulkImport() throws Exception{
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("bulk" + i, i));
+        }
+        // when
+        int imported = memberRepository.bulkImport(members, 100);
+        // then
+        assertThat(imported).isEqualTo(250);
+        assertThat(memberRepository.count()).isEqualTo(250);
+        assertThat(em.contains(members.get(0))).isFalse();
+    }
+
+    @Test
+    void auditorResolvedOncePerTransaction() throws Exception{
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("audit" + i, i));
+        }
+        // when
+        memberRepository.bulkImport(members);
+        memberRepository.save(new Member("audit10", 10));
+        em.flush();
+        em.clear();
+        // then
+        List<String> auditors = memberRepository.findAll().stream()
+                .map(Member::getCreateBy)
+                .distinct()
+                .collect(Collectors.toList());
+        assertThat(auditors).hasSize(1);
+        assertThat(auditors.get(0)).isNotNull();
+    }
+
     @Test
     void bulkUpdate() throws Exception{
         // given
@@ -233,6 +454,23 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    void bulkUpdateEvictsSecondLevelCache() throws Exception{
+        // given
+        Member member = memberRepository.save(new Member("member1", 20));
+        em.flush();
+        em.clear();
+        memberRepository.findById(member.getId()); // 2차 캐시에 적재
+        Cache cache = em.getEntityManagerFactory().getCache();
+        assertThat(cache.contains(Member.class, member.getId())).isTrue();
+
+        // when
+        memberRepository.bulkAgePlus(20);
+
+        // then
+        assertThat(cache.contains(Member.class, member.getId())).isFalse();
+    }
+
     @Test
     void entityGraph() throws Exception{
         // given
@@ -257,6 +495,236 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    void detectNPlusOne() throws Exception{
+        // given: 회원마다 다른 팀
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberIds.add(memberRepository.save(new Member("member" + i, 10, team)).getId());
+        }
+        em.flush();
+        em.clear();
+        // 배치 페치는 영속성 컨텍스트에서 초기화되지 않은 프록시만 묶으므로,
+        // 회원을 하나씩 조회하면서 팀을 쓰면 배치 페치가 켜져 있어도 팀 지연 로딩이 회원 수만큼 일어난다
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        // when & then: 임계값(2) 이하면 조용하다
+        try (NPlusOneDetector.Scope ignored = nPlusOneDetector.openScope(NPlusOneDetector.Mode.FAIL, 2)) {
+            assertThat(catchThrowable(() -> loadTeamsOneByOne(memberIds.subList(0, 2)))).isNull();
+        }
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        // 넘으면 예외
+        try (NPlusOneDetector.Scope ignored = nPlusOneDetector.openScope(NPlusOneDetector.Mode.FAIL, 2)) {
+            Throwable thrown = catchThrowable(() -> loadTeamsOneByOne(memberIds));
+            assertThat(NestedExceptionUtils.getMostSpecificCause(thrown)).isInstanceOf(NPlusOneQueryException.class);
+        }
+    }
+
+    private void loadTeamsOneByOne(List<Long> memberIds) {
+        for (Long memberId : memberIds) {
+            memberRepository.findById(memberId).get().getTeam().getName(); // 팀 지연 로딩 쿼리
+        }
+    }
+
+    @Test
+    void batchFetchLazyTeams() throws Exception{
+        // given
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("team" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("member" + i, 10, team));
+            memberRepository.save(new Member("member" + i, 20, team));
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        // when
+        List<MemberDto> result = new ArrayList<>();
+        for (Member member : memberRepository.findMemberCustom()) {
+            result.add(new MemberDto(member.getId(), member.getUsername(), member.getTeam().getName()));
+        }
+
+        // then (회원 조회 1 + 팀 IN 조회 1)
+        assertThat(result).hasSize(20);
+        assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(2);
+    }
+
+    @Test
+    void changeTeamWithoutLoadingMembers() throws Exception{
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Member member = memberRepository.save(new Member("mover", 10, teamA));
+        memberRepository.save(new Member("stay", 10, teamA));
+        em.flush();
+        em.clear();
+
+        // when
+        Member findMember = memberRepository.findById(member.getId()).get();
+        Team oldTeam = findMember.getTeam();
+        Team newTeam = teamRepository.findById(teamB.getId()).get();
+        findMember.changeTeam(newTeam);
+        em.flush();
+
+        // then
+        assertThat(Hibernate.isInitialized(oldTeam.getMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(newTeam.getMembers())).isFalse();
+        em.clear();
+        assertThat(teamRepository.findById(teamA.getId()).get().getMemberCount()).isEqualTo(1);
+        assertThat(teamRepository.findById(teamB.getId()).get().getMemberCount()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getTeam().getId()).isEqualTo(teamB.getId());
+    }
+
+    @Test
+    void bulkImportKeepsMemberCount() throws Exception{
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("bulk" + i, i, team));
+        }
+
+        // when: 배치마다 clear 되어 team 객체가 준영속이 되어도 회원 수는 DB 에서 증가
+        memberRepository.bulkImport(members, 100);
+        em.clear();
+        int imported = teamRepository.findById(team.getId()).get().getMemberCount();
+        // 배치 삭제는 삭제 이벤트가 없으므로 다시 센다
+        memberRepository.deleteAllByIdInBatch(Arrays.asList(members.get(0).getId(), members.get(1).getId()));
+        em.clear();
+
+        // then
+        assertThat(imported).isEqualTo(250);
+        assertThat(teamRepository.findById(team.getId()).get().getMemberCount()).isEqualTo(248);
+        assertThat(teamRepository.findById(team.getId()).get().getVersion()).isEqualTo(0);
+    }
+
+    @Test
+    void bulkImportRejectsNonPositiveBatchSize() throws Exception{
+        // when
+        Throwable thrown = catchThrowable(() -> memberRepository.bulkImport(List.of(new Member("bulk", 10)), 0));
+        // then (리포지토리 프록시가 IllegalArgumentException 을 변환)
+        assertThat(thrown).isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(memberRepository.findByUsername("bulk")).isEmpty();
+    }
+
+    @Test
+    void searchByCondition() throws Exception{
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamB));
+        memberRepository.save(new Member("member4", 40));
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // when
+        MemberSearchCondition byAgeAndTeam = new MemberSearchCondition();
+        byAgeAndTeam.setAgeGoe(15);
+        byAgeAndTeam.setTeamName("teamA");
+        PageRequest page = PageRequest.of(0, 10);
+        Slice<Member> first = memberRepository.search(byAgeAndTeam, page);
+        long misses = statistics.getQueryPlanCacheMissCount();
+        // 같은 조건 조합은 값이 달라도 만들어 둔 쿼리를 그대로 사용
+        byAgeAndTeam.setAgeGoe(5);
+        byAgeAndTeam.setTeamName("teamB");
+        Slice<Member> second = memberRepository.search(byAgeAndTeam, page);
+
+        MemberSearchCondition byAgeRange = new MemberSearchCondition();
+        byAgeRange.setAgeGoe(20);
+        byAgeRange.setAgeLoe(40);
+        byAgeRange.setCreatedFrom(LocalDateTime.now().minusMinutes(1));
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("member4");
+        byUsername.setCreatedTo(LocalDateTime.now().minusMinutes(1));
+
+        // then
+        assertThat(first).extracting("username").containsExactly("member2");
+        assertThat(second).extracting("username").containsExactly("member3");
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+        assertThat(memberRepository.search(byAgeRange, page)).extracting("username")
+                .containsExactly("member2", "member3", "member4");
+        Slice<Member> firstOfRange = memberRepository.search(byAgeRange, PageRequest.of(0, 2));
+        assertThat(firstOfRange).extracting("username").containsExactly("member2", "member3");
+        assertThat(firstOfRange.hasNext()).isTrue();
+        assertThat(memberRepository.search(byAgeRange, PageRequest.of(1, 2))).extracting("username")
+                .containsExactly("member4");
+        assertThat(memberRepository.search(byUsername, page)).isEmpty();
+        // 조건 없는 조회나 페이지 크기 없는 조회는 받지 않는다 (리포지토리 프록시가 IllegalArgumentException 을 변환)
+        assertThat(catchThrowable(() -> memberRepository.search(new MemberSearchCondition(), page)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(catchThrowable(() -> memberRepository.search(byAgeRange, Pageable.unpaged())))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchByUsernamePrefixFallback() throws Exception{
+        // given (@DataJpaTest 에는 메모리 인덱스가 없으므로 DB 범위 조회)
+        memberRepository.save(new Member("search1", 10));
+        memberRepository.save(new Member("search2", 10));
+        memberRepository.save(new Member("searcH3", 10));
+        memberRepository.save(new Member("other", 10));
+        // when
+        List<MemberDto> result = memberRepository.searchByUsernamePrefix("search", 10);
+        // then
+        assertThat(result).extracting("username").containsExactly("search1", "search2");
+        assertThat(memberRepository.searchByUsernamePrefix("", 10)).isEmpty();
+    }
+
+    @Test
+    void scrollByAgeUnderInserts() throws Exception{
+        // given
+        List<Long> existing = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            existing.add(memberRepository.save(new Member("scroll" + i, 30)).getId());
+            memberRepository.save(new Member("other" + i, 31));
+        }
+        // when: Slice 사이마다 같은 나이의 회원이 새로 추가된다
+        List<Long> seen = new ArrayList<>();
+        Long afterId = null;
+        Slice<Member> slice;
+        int inserted = 0;
+        do {
+            slice = memberRepository.scrollByAge(30, afterId, 10);
+            slice.forEach(member -> seen.add(member.getId()));
+            afterId = slice.getContent().get(slice.getNumberOfElements() - 1).getId();
+            if (inserted++ < 2) {
+                memberRepository.save(new Member("late" + inserted, 30));
+            }
+        } while (slice.hasNext());
+        // then: 기존 회원은 빠짐없이 한 번씩 id 순으로, 새 회원은 뒤에 붙는다
+        assertThat(seen).doesNotHaveDuplicates();
+        assertThat(seen).isSorted();
+        assertThat(seen).containsAll(existing);
+        assertThat(seen).hasSize(27);
+    }
+
+    @Test
+    void scrollTeams() throws Exception{
+        // given
+        for (int i = 0; i < 5; i++) {
+            teamRepository.save(new Team("scrollTeam" + i));
+        }
+        // when
+        Slice<Team> first = teamRepository.scroll(null, null, 3);
+        Slice<Team> second = teamRepository.scroll(null, first.getContent().get(2).getId(), 3);
+        // then
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).hasSize(2);
+        assertThat(second.hasNext()).isFalse();
+    }
+
     @Test
     void queryHint() throws Exception{
         // given
@@ -312,6 +780,20 @@ class MemberRepositoryTest {
         // then
     }
     
+    @Test
+    void openProjections() throws Exception{
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("m1", 10, teamA));
+        em.flush();
+        em.clear();
+        // when
+        List<UsernameOnly> result = memberRepository.findProjectionsByUsername("m1", UsernameOnly.class);
+        // then
+        assertThat(result).extracting(UsernameOnly::getUsername).containsExactly("m1 10");
+    }
+
     @Test
     void nativeQuery() throws Exception{
         // given
@@ -0,0 +1,81 @@
+package com.study.datajpa.repository;
+
+import com.study.datajpa.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ScrollRepositoryTest {
+
+    // 다른 테스트 데이터와 섞이지 않는 나이
+    private static final int AGE = 424_242;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    // 커밋된 테스트 데이터는 끝나면 지운다 (다른 스레드도 추가)
+    private final List<Long> created = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(new ArrayList<>(created));
+        created.clear();
+    }
+
+    @Test
+    void scrollKeepsRowsPresentAtStartUnderConcurrentInserts() throws Exception{
+        // given
+        List<Long> existing = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            existing.add(memberRepository.save(new Member("scroll" + i, AGE)).getId());
+        }
+        created.addAll(existing);
+
+        // when: 다른 스레드가 같은 나이의 회원을 계속 커밋하는 동안 스크롤
+        AtomicBoolean scrolling = new AtomicBoolean(true);
+        CountDownLatch firstInsert = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Long> seen = new ArrayList<>();
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; scrolling.get(); i++) {
+                    created.add(memberRepository.save(new Member("late" + i, AGE)).getId());
+                    firstInsert.countDown();
+                }
+            });
+            assertThat(firstInsert.await(10, TimeUnit.SECONDS)).isTrue();
+            Long afterId = null;
+            Slice<Member> slice;
+            do {
+                slice = memberRepository.scrollByAge(AGE, afterId, 5);
+                slice.forEach(member -> seen.add(member.getId()));
+                afterId = slice.getContent().get(slice.getNumberOfElements() - 1).getId();
+            } while (slice.hasNext() && seen.size() < 500);
+            scrolling.set(false);
+            writer.get(10, TimeUnit.SECONDS);
+        } finally {
+            scrolling.set(false);
+            executor.shutdown();
+        }
+
+        // then: 시작할 때 있던 회원은 빠짐없이 한 번씩, id 순으로 (도중에 추가된 회원은 보장하지 않는다)
+        assertThat(seen).doesNotHaveDuplicates();
+        assertThat(seen).isSorted();
+        assertThat(seen).containsAll(existing);
+    }
+}
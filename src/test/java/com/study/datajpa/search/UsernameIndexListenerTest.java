@@ -0,0 +1,50 @@
+package com.study.datajpa.search;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UsernameIndexListenerTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    UsernameIndex usernameIndex;
+
+    // 커밋된 테스트 데이터는 끝나면 지운다
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void batchDeleteRemovesFromIndex() throws Exception{
+        // given
+        Member deleted = memberRepository.save(new Member("indexdel1", 10));
+        Member kept = memberRepository.save(new Member("indexdel2", 10));
+        created.add(deleted.getId());
+        created.add(kept.getId());
+        assertThat(usernameIndex.search("indexdel", 10)).extracting(MemberDto::getUsername)
+                .containsExactly("indexdel1", "indexdel2");
+
+        // when: 벌크 delete 는 엔티티 리스너를 거치지 않는다
+        memberRepository.deleteAllByIdInBatch(List.of(deleted.getId()));
+
+        // then
+        assertThat(usernameIndex.search("indexdel", 10)).extracting(MemberDto::getUsername)
+                .containsExactly("indexdel2");
+    }
+}
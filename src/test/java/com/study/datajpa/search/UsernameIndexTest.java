@@ -0,0 +1,48 @@
+package com.study.datajpa.search;
+
+import com.study.datajpa.dto.MemberDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsernameIndexTest {
+
+    @Test
+    void searchMergesBaseAndDelta() throws Exception{
+        // given
+        UsernameIndex index = new UsernameIndex(1000);
+        index.rebuild(Arrays.asList(
+                new Object[]{1L, "kim"}, new Object[]{2L, "kimchi"}, new Object[]{3L, "lee"}, new Object[]{4L, "kang"}).iterator());
+        // when
+        index.put("kimbap", 5L);
+        index.remove("kimchi", 2L);
+        index.put("kim", 1L);
+        // then
+        assertThat(usernames(index.search("kim", 10))).containsExactly("kim", "kimbap");
+        assertThat(usernames(index.search("k", 2))).containsExactly("kang", "kim");
+        assertThat(index.search("park", 10)).isEmpty();
+    }
+
+    @Test
+    void compactKeepsResults() throws Exception{
+        // given
+        UsernameIndex index = new UsernameIndex(3);
+        index.rebuild(Arrays.asList(new Object[]{1L, "user1"}, new Object[]{2L, "user2"}).iterator());
+        // when: 세 번째 변경에서 base 로 합쳐진다
+        index.put("user3", 3L);
+        index.remove("user1", 1L);
+        index.put("유저", 4L);
+        // then
+        assertThat(usernames(index.search("user", 10))).containsExactly("user2", "user3");
+        assertThat(usernames(index.search("유", 10))).containsExactly("유저");
+        assertThat(index.estimatedBytes()).isLessThan(100);
+    }
+
+    private List<String> usernames(List<MemberDto> result) {
+        return result.stream().map(MemberDto::getUsername).collect(Collectors.toList());
+    }
+}
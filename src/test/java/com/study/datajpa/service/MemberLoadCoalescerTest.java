@@ -0,0 +1,94 @@
+package com.study.datajpa.service;
+
+import com.study.datajpa.dto.MemberDto;
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.coalesce.window-ms=200")
+class MemberLoadCoalescerTest {
+
+    @Autowired
+    MemberLoadCoalescer memberLoadCoalescer;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManagerFactory emf;
+
+    // 커밋된 테스트 데이터는 끝나면 지운다
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void concurrentLoadsShareOneQuery() throws Exception{
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            ids.add(memberRepository.save(new Member("coalesce" + i, i)).getId());
+        }
+        created.addAll(ids);
+        ids.add(-1L);
+        emf.getCache().evictAll();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        // when: 동시에 들어온 단건 조회
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<MemberDto>>> futures = new ArrayList<>();
+        try {
+            for (Long id : ids) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return memberLoadCoalescer.load(id);
+                }));
+            }
+            start.countDown();
+            // then
+            for (int i = 0; i < 16; i++) {
+                assertThat(futures.get(i).get().get().getUsername()).isEqualTo("coalesce" + i);
+            }
+            assertThat(futures.get(16).get()).isEmpty();
+        } finally {
+            executor.shutdown();
+        }
+        // 처음 도착한 요청은 바로 조회하고, 그동안 도착한 요청은 한 번에 묶인다
+        assertThat(statistics.getPrepareStatementCount() - before).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void uncontendedLoadDoesNotWait() throws Exception{
+        // given
+        Long id = memberRepository.save(new Member("coalesce-single", 1)).getId();
+        created.add(id);
+        // when
+        long start = System.nanoTime();
+        Optional<MemberDto> member = memberLoadCoalescer.load(id);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // then: 다른 조회가 없으면 200ms 창을 기다리지 않는다
+        assertThat(member.get().getUsername()).isEqualTo("coalesce-single");
+        assertThat(elapsedMillis).isLessThan(200);
+    }
+}
@@ -0,0 +1,76 @@
+package com.study.datajpa.service;
+
+import com.study.datajpa.entity.Member;
+import com.study.datajpa.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberWriteServiceTest {
+
+    @Autowired
+    MemberWriteService memberWriteService;
+    @Autowired
+    MemberRepository memberRepository;
+
+    // 커밋된 테스트 데이터는 끝나면 지운다
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(created);
+        created.clear();
+    }
+
+    @Test
+    void optimisticUpdateRetriesOnConflict() throws Exception{
+        // given
+        Long id = memberRepository.save(new Member("lock1", 10)).getId();
+        created.add(id);
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // when: 첫 시도 도중 다른 스레드가 같은 회원을 먼저 수정하고 커밋
+        try {
+            memberWriteService.update(id, WriteLockMode.OPTIMISTIC, member -> {
+                if (attempts.incrementAndGet() == 1) {
+                    try {
+                        executor.submit(() -> memberWriteService.update(id, WriteLockMode.PESSIMISTIC,
+                                other -> other.setAge(other.getAge() + 100))).get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                member.setAge(member.getAge() + 1);
+            });
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        Member member = memberRepository.findById(id).get();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(member.getAge()).isEqualTo(111);
+        assertThat(member.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkUpdateIncrementsVersion() throws Exception{
+        // given
+        // 다른 테스트의 회원과 겹치지 않는 나이
+        Long id = memberRepository.save(new Member("lock2", 1_000_000)).getId();
+        created.add(id);
+        // when
+        memberRepository.bulkAgePlus(1_000_000);
+        // then
+        assertThat(memberRepository.findById(id).get().getVersion()).isEqualTo(1);
+    }
+}